@@ -0,0 +1,269 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Bit packed codec for the shared array.
+ *
+ * Every record type declares its field widths below and the layout places the record tables back to back in one
+ * bit stream over the shared array (most significant bit of slot 0 first), so records freely cross slot
+ * boundaries. Each field is read or written with one two-slot window, so decode cost does not depend on where a
+ * record lands. The last slot is reserved for the SharedSync version counter.
+ */
+final class Comms {
+
+	// schema: field widths ========================================
+
+	// locations are stored as (x | y << 6) + 1 -> 0 means no location
+	static final int LOC_BITS = 12;
+
+	static final int HQ_BITS = LOC_BITS;
+
+	static final int WELL_TYPE_BITS = 2; // ResourceType ordinal
+	static final int WELL_BITS = LOC_BITS + WELL_TYPE_BITS;
+
+	static final int ISLAND_TEAM_BITS = 2; // Team ordinal
+	static final int ISLAND_BITS = LOC_BITS + ISLAND_TEAM_BITS;
+
+	static final int SYMMETRY_BITS = 3; // bit per Symmetry ordinal, set = ruled out
+
+	// per well record: carriers the HQ wants there (0 = not set yet) and carriers that claimed it
+	static final int QUOTA_BITS = 3, CLAIM_BITS = 3;
+	static final int DISPATCH_BITS = QUOTA_BITS + CLAIM_BITS;
+
+	// flow field: its target, then per sector (row major) the Direction ordinal to head in
+	static final int FLOW_HINT_BITS = 3;
+
+	// enemy sighting: where a group of enemy fighters was seen, its size bucket and the round / ROUND_UNIT it was seen
+	static final int SIGHTING_SIZE_BITS = 2, SIGHTING_ROUND_BITS = 6;
+	static final int SIGHTING_BITS = LOC_BITS + SIGHTING_SIZE_BITS + SIGHTING_ROUND_BITS;
+
+	// explored sectors: bit per sector (row major), set = one of our robots has been there
+	static final int EXPLORED_BITS = Sectors.COUNT;
+
+	// relay claim: set = an amplifier holds the relay position (read and written as one mask over all relays)
+	static final int RELAY_CLAIM_BITS = 1;
+
+	// layout: bit offset of every table ============================
+
+	static final int HQ_COUNT = 4, ENEMY_HQ_COUNT = 4, WELL_COUNT = 8, ISLAND_COUNT = 35, SIGHTING_COUNT = 4,
+			RELAY_COUNT = 4;
+
+	static final int HQ_OFFSET = 0;
+	static final int ENEMY_HQ_OFFSET = HQ_OFFSET + HQ_COUNT * HQ_BITS;
+	static final int SYMMETRY_OFFSET = ENEMY_HQ_OFFSET + ENEMY_HQ_COUNT * HQ_BITS;
+	static final int WELL_OFFSET = SYMMETRY_OFFSET + SYMMETRY_BITS;
+	static final int ISLAND_OFFSET = WELL_OFFSET + WELL_COUNT * WELL_BITS;
+	static final int DISPATCH_OFFSET = ISLAND_OFFSET + ISLAND_COUNT * ISLAND_BITS;
+	static final int FLOW_OFFSET = DISPATCH_OFFSET + WELL_COUNT * DISPATCH_BITS;
+	static final int SIGHTING_OFFSET = FLOW_OFFSET + LOC_BITS + Sectors.COUNT * FLOW_HINT_BITS;
+	static final int EXPLORED_OFFSET = SIGHTING_OFFSET + SIGHTING_COUNT * SIGHTING_BITS;
+	static final int RELAY_OFFSET = EXPLORED_OFFSET + EXPLORED_BITS;
+	static final int END_OFFSET = RELAY_OFFSET + RELAY_COUNT * RELAY_CLAIM_BITS; // <= SharedSync.VERSION_INDEX * 16
+
+	// bit stream ===================================================
+
+	/**
+	 * Reads a field of at most 16 bits from the mirror.
+	 */
+	static int read(int bit, int width) {
+		int slot = bit >>> 4;
+		int window = SharedSync.mirror[slot] << 16 | SharedSync.mirror[slot + 1];
+		return (window >>> (32 - (bit & 15) - width)) & ((1 << width) - 1);
+	}
+
+	/**
+	 * Writes a field of at most 16 bits, touching only the slots whose value changes.
+	 *
+	 * @return false if the robot could not write to the shared array
+	 */
+	static boolean write(RobotController rc, int bit, int width, int value) throws GameActionException {
+		int slot = bit >>> 4;
+		int shift = 32 - (bit & 15) - width;
+		int mask = ((1 << width) - 1) << shift;
+		int window = SharedSync.mirror[slot] << 16 | SharedSync.mirror[slot + 1];
+		int next = (window & ~mask) | (value << shift);
+		if (next == window)
+			return true;
+
+		int hi = next >>> 16;
+		int lo = next & 0xFFFF;
+		if (hi != SharedSync.mirror[slot] && !SharedSync.write(rc, slot, hi))
+			return false;
+		return lo == SharedSync.mirror[slot + 1] || SharedSync.write(rc, slot + 1, lo);
+	}
+
+	/**
+	 * @return true if any slot holding the field changed in the last sync
+	 */
+	static boolean isDirty(int bit, int width) {
+		return SharedSync.isDirty(bit >>> 4, (bit + width - 1) >>> 4);
+	}
+
+	static int encodeLocation(MapLocation loc) {
+		return (loc.x | loc.y << 6) + 1;
+	}
+
+	/**
+	 * @return the location packed as x | y << 6, or WorldModel.NONE
+	 */
+	static int decodeLocation(int v) {
+		return v - 1;
+	}
+
+	// records =======================================================
+
+	static int readHq(int index, boolean isEnemy) {
+		return decodeLocation(read((!isEnemy ? HQ_OFFSET : ENEMY_HQ_OFFSET) + index * HQ_BITS, HQ_BITS));
+	}
+
+	/*
+	 * The record writers return false only if the robot could not write (out of range); a record that is already
+	 * present or does not fit anymore counts as done.
+	 */
+
+	static boolean writeHq(RobotController rc, MapLocation loc, boolean isEnemy) throws GameActionException {
+		if (loc == null)
+			return true;
+
+		int d = encodeLocation(loc);
+		int bit = !isEnemy ? HQ_OFFSET : ENEMY_HQ_OFFSET;
+		for (int i = !isEnemy ? HQ_COUNT : ENEMY_HQ_COUNT; --i >= 0; bit += HQ_BITS) {
+			int v = read(bit, HQ_BITS);
+			if (v == d)
+				return true;
+			if (v == 0)
+				return write(rc, bit, HQ_BITS, d);
+		}
+		return true;
+	}
+
+	static int readWell(int index) {
+		return decodeLocation(read(WELL_OFFSET + index * WELL_BITS, LOC_BITS));
+	}
+
+	static int readWellType(int index) {
+		return read(WELL_OFFSET + index * WELL_BITS + LOC_BITS, WELL_TYPE_BITS);
+	}
+
+	static boolean writeWell(RobotController rc, MapLocation loc, ResourceType type) throws GameActionException {
+		int d = encodeLocation(loc);
+		int bit = WELL_OFFSET;
+		for (int i = WELL_COUNT; --i >= 0; bit += WELL_BITS) {
+			int v = read(bit, LOC_BITS);
+			if (v == d)
+				return true;
+			if (v == 0)
+				return write(rc, bit + LOC_BITS, WELL_TYPE_BITS, type.ordinal()) && write(rc, bit, LOC_BITS, d);
+		}
+		return true;
+	}
+
+	static int readIsland(int index) {
+		return decodeLocation(read(ISLAND_OFFSET + index * ISLAND_BITS, LOC_BITS));
+	}
+
+	static int readIslandTeam(int index) {
+		return read(ISLAND_OFFSET + index * ISLAND_BITS + LOC_BITS, ISLAND_TEAM_BITS);
+	}
+
+	static boolean writeIsland(RobotController rc, int index, MapLocation loc, Team team) throws GameActionException {
+		int bit = ISLAND_OFFSET + (index % ISLAND_COUNT) * ISLAND_BITS; // island ids may run from 1 to ISLAND_COUNT
+		if (read(bit, LOC_BITS) != 0 && read(bit + LOC_BITS, ISLAND_TEAM_BITS) == team.ordinal())
+			return true; // ignore location data
+		return write(rc, bit + LOC_BITS, ISLAND_TEAM_BITS, team.ordinal()) && write(rc, bit, LOC_BITS, encodeLocation(loc));
+	}
+
+	static int readWellQuota(int index) {
+		return read(DISPATCH_OFFSET + index * DISPATCH_BITS, QUOTA_BITS);
+	}
+
+	static boolean writeWellQuota(RobotController rc, int index, int quota) throws GameActionException {
+		return write(rc, DISPATCH_OFFSET + index * DISPATCH_BITS, QUOTA_BITS, quota);
+	}
+
+	static int readWellClaims(int index) {
+		return read(DISPATCH_OFFSET + index * DISPATCH_BITS + QUOTA_BITS, CLAIM_BITS);
+	}
+
+	static boolean writeWellClaims(RobotController rc, int index, int claims) throws GameActionException {
+		return write(rc, DISPATCH_OFFSET + index * DISPATCH_BITS + QUOTA_BITS, CLAIM_BITS, claims);
+	}
+
+	/**
+	 * @return the flow field's target, or null if none was published yet
+	 */
+	static MapLocation readFlowTarget() {
+		int p = decodeLocation(read(FLOW_OFFSET, LOC_BITS));
+		return p == WorldModel.NONE ? null : WorldModel.location(p);
+	}
+
+	static boolean writeFlowTarget(RobotController rc, MapLocation loc) throws GameActionException {
+		return write(rc, FLOW_OFFSET, LOC_BITS, encodeLocation(loc));
+	}
+
+	static int readFlowHint(int sector) {
+		return read(FLOW_OFFSET + LOC_BITS + sector * FLOW_HINT_BITS, FLOW_HINT_BITS);
+	}
+
+	static boolean writeFlowHint(RobotController rc, int sector, int direction) throws GameActionException {
+		return write(rc, FLOW_OFFSET + LOC_BITS + sector * FLOW_HINT_BITS, FLOW_HINT_BITS, direction);
+	}
+
+	static int readSighting(int index) {
+		return decodeLocation(read(SIGHTING_OFFSET + index * SIGHTING_BITS, LOC_BITS));
+	}
+
+	static int readSightingSize(int index) {
+		return read(SIGHTING_OFFSET + index * SIGHTING_BITS + LOC_BITS, SIGHTING_SIZE_BITS);
+	}
+
+	static int readSightingStamp(int index) {
+		return read(SIGHTING_OFFSET + index * SIGHTING_BITS + LOC_BITS + SIGHTING_SIZE_BITS, SIGHTING_ROUND_BITS);
+	}
+
+	static boolean writeSighting(RobotController rc, int index, MapLocation loc, int size, int stamp)
+			throws GameActionException {
+		int bit = SIGHTING_OFFSET + index * SIGHTING_BITS;
+		return write(rc, bit + LOC_BITS, SIGHTING_SIZE_BITS + SIGHTING_ROUND_BITS, size << SIGHTING_ROUND_BITS | stamp)
+				&& write(rc, bit, LOC_BITS, encodeLocation(loc));
+	}
+
+	static boolean clearSighting(RobotController rc, int index) throws GameActionException {
+		return write(rc, SIGHTING_OFFSET + index * SIGHTING_BITS, LOC_BITS, 0);
+	}
+
+	static long readExplored() {
+		long mask = 0;
+		for (int bit = 0; bit < EXPLORED_BITS; bit += 16) {
+			int width = Math.min(16, EXPLORED_BITS - bit);
+			mask |= (long) read(EXPLORED_OFFSET + bit, width) << bit;
+		}
+		return mask;
+	}
+
+	static boolean writeExplored(RobotController rc, long mask) throws GameActionException {
+		for (int bit = 0; bit < EXPLORED_BITS; bit += 16) {
+			int width = Math.min(16, EXPLORED_BITS - bit);
+			if (!write(rc, EXPLORED_OFFSET + bit, width, (int) (mask >>> bit) & ((1 << width) - 1)))
+				return false;
+		}
+		return true;
+	}
+
+	static int readRelayClaims() {
+		return read(RELAY_OFFSET, RELAY_COUNT * RELAY_CLAIM_BITS);
+	}
+
+	static boolean writeRelayClaims(RobotController rc, int mask) throws GameActionException {
+		return write(rc, RELAY_OFFSET, RELAY_COUNT * RELAY_CLAIM_BITS, mask);
+	}
+
+	static int readEliminatedSymmetries() {
+		return read(SYMMETRY_OFFSET, SYMMETRY_BITS);
+	}
+
+	static boolean writeEliminatedSymmetries(RobotController rc, int mask) throws GameActionException {
+		return write(rc, SYMMETRY_OFFSET, SYMMETRY_BITS, mask);
+	}
+}
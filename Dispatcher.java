@@ -0,0 +1,156 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Spreads carriers over the known wells.
+ *
+ * Every well gets a quota: the tiles a carrier can collect from (the well and its neighbours that are not walls)
+ * plus one for every TRAVEL_PER_CARRIER steps to the closest HQ, since longer trips keep more carriers on the road.
+ * It is only computed once every tile around the well is known, so the HQ closest to a well publishes it if the well
+ * is in its vision, and otherwise the first carrier that has seen the well's surroundings does. Carriers claim a slot
+ * when they pick a well and release it when they leave.
+ * Claims of dead carriers are never released, so the HQs clear all claims every CLAIM_PERIOD rounds and carriers
+ * claim their well again in the next period.
+ */
+final class Dispatcher {
+
+	static final int CLAIM_PERIOD = 50;
+	static final int TRAVEL_PER_CARRIER = 10;
+	static final int DEFAULT_QUOTA = 4; // until an HQ published one
+	private static final int MAX = (1 << Comms.QUOTA_BITS) - 1;
+
+	private static int claimed = WorldModel.NONE; // well this robot claimed
+	private static int claimPeriod = -1; // period the claim was counted in, -1 while it is not counted
+	private static boolean surveyed = false; // whether the claimed well's shared quota matches its surroundings
+
+	// HQ side =======================================================
+
+	/**
+	 * Publishes missing quotas of wells in vision and clears the claims at the start of every period.
+	 */
+	static void publish(RobotController rc) throws GameActionException {
+		MapLocation me = rc.getLocation();
+		boolean reset = rc.getRoundNum() % CLAIM_PERIOD == 0;
+		for (int i = Comms.WELL_COUNT; --i >= 0;) {
+			int p = WorldModel.wellLoc[i];
+			if (p == WorldModel.NONE)
+				continue;
+			if (reset && Comms.readWellClaims(i) != 0)
+				Comms.writeWellClaims(rc, i, 0);
+			if (Comms.readWellQuota(i) != 0)
+				continue;
+			MapLocation well = WorldModel.location(p);
+			if (!me.equals(WorldModel.closestHq(well)))
+				continue; // the closest HQ speaks for the well
+			int q = quota(rc, well);
+			if (q != 0)
+				Comms.writeWellQuota(rc, i, q);
+		}
+	}
+
+	/**
+	 * @return the well's quota from the remembered terrain, or 0 while a tile around it is unknown
+	 */
+	private static int quota(RobotController rc, MapLocation well) {
+		int w = rc.getMapWidth(), h = rc.getMapHeight();
+		int tiles = 0;
+		for (int x = well.x - 1; x <= well.x + 1; x++) {
+			for (int y = well.y - 1; y <= well.y + 1; y++) {
+				if (x < 0 || y < 0 || x >= w || y >= h)
+					continue;
+				int t = MapMemory.tiles[MapMemory.index(x, y)];
+				if ((t & MapMemory.KNOWN) == 0)
+					return 0;
+				if ((t & MapMemory.WALL) == 0)
+					tiles++;
+			}
+		}
+		MapLocation hq = WorldModel.closestHq(well);
+		int steps = hq == null ? 0 : Math.max(Math.abs(hq.x - well.x), Math.abs(hq.y - well.y));
+		return Math.min(MAX, tiles + steps / TRAVEL_PER_CARRIER);
+	}
+
+	// carrier side ==================================================
+
+	private static int quotaOf(int well) {
+		int q = Comms.readWellQuota(well);
+		return q == 0 ? DEFAULT_QUOTA : q;
+	}
+
+	/**
+	 * Picks the nearest well of the preferred type that still has a free slot, otherwise the nearest of any type
+	 * with one, otherwise the preferred type's usual weighted pick, and claims it.
+	 *
+	 * @return the well's index, or WorldModel.NONE if no well is known
+	 */
+	static int claim(RobotController rc, ResourceType preferred) throws GameActionException {
+		release(rc);
+		int well = free(preferred);
+		if (well == WorldModel.NONE)
+			well = free(preferred == ResourceType.MANA ? ResourceType.ADAMANTIUM : ResourceType.MANA);
+		if (well == WorldModel.NONE)
+			well = WellIndex.pickNearest(preferred);
+		if (well == WorldModel.NONE)
+			well = WellIndex.pickNearest(preferred == ResourceType.MANA ? ResourceType.ADAMANTIUM : ResourceType.MANA);
+		if (well == WorldModel.NONE)
+			return well;
+		claimed = well;
+		claimPeriod = -1;
+		surveyed = false;
+		refresh(rc);
+		return well;
+	}
+
+	private static int free(ResourceType type) {
+		for (int j = 0, n = WellIndex.count(type); j < n; j++) {
+			int well = WellIndex.get(type, j);
+			if (Comms.readWellClaims(well) < quotaOf(well))
+				return well;
+		}
+		return WorldModel.NONE;
+	}
+
+	/**
+	 * Corrects the claimed well's quota once this robot knows the well's surroundings, and counts its claim if it
+	 * is not counted in the current period yet (it was just made, or the HQs cleared the claims). Both need write
+	 * access, so they are retried every turn.
+	 */
+	static void refresh(RobotController rc) throws GameActionException {
+		if (claimed == WorldModel.NONE)
+			return;
+		if (!surveyed) {
+			int q = quota(rc, WorldModel.wellLocation(claimed));
+			if (q != 0 && (q == Comms.readWellQuota(claimed) || Comms.writeWellQuota(rc, claimed, q)))
+				surveyed = true;
+		}
+		int period = rc.getRoundNum() / CLAIM_PERIOD;
+		if (claimPeriod == period)
+			return;
+		int claims = Comms.readWellClaims(claimed);
+		if (claims == MAX || Comms.writeWellClaims(rc, claimed, claims + 1))
+			claimPeriod = period;
+	}
+
+	/**
+	 * @return true if more carriers claimed the well than its quota allows
+	 */
+	static boolean crowded(int well) {
+		return Comms.readWellClaims(well) > quotaOf(well);
+	}
+
+	/**
+	 * Gives up this robot's claim.
+	 */
+	static void release(RobotController rc) throws GameActionException {
+		if (claimed == WorldModel.NONE)
+			return;
+		if (claimPeriod == rc.getRoundNum() / CLAIM_PERIOD) {
+			int claims = Comms.readWellClaims(claimed);
+			if (claims > 0)
+				Comms.writeWellClaims(rc, claimed, claims - 1); // out of range -> the next reset clears it
+		}
+		claimed = WorldModel.NONE;
+		claimPeriod = -1;
+	}
+}
@@ -0,0 +1,61 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Which sectors our robots have been to, and where scouts should go next.
+ *
+ * Every robot marks the sector it stands in and ORs its marks into the shared bitmap whenever it can write, so
+ * marks made out of write range are shared later and never lost. Scouts head for the unexplored sector with the
+ * best value for its distance. A sector is worth most if its mirror under the likeliest symmetry is unexplored as
+ * well, since either may hold the wells and islands still missing. While the symmetry is unknown, a sector whose
+ * mirror was explored is still worth a little more, because its terrain tests the guess.
+ */
+final class Exploration {
+
+	static long explored = 0; // shared bitmap, bit per sector
+	private static long visited = 0; // sectors this robot has been in
+
+	static void merge(long mask) {
+		explored = mask;
+	}
+
+	/**
+	 * Marks the robot's sector and shares the marks the bitmap does not hold yet, if the robot can write.
+	 */
+	static void visit(RobotController rc) throws GameActionException {
+		visited |= 1L << Sectors.of(rc.getLocation());
+		long missing = visited & ~explored;
+		if (missing != 0 && Comms.writeExplored(rc, explored | missing))
+			explored |= missing;
+	}
+
+	static boolean isExplored(int sector) {
+		return ((explored | visited) & 1L << sector) != 0;
+	}
+
+	/**
+	 * @return the unexplored sector most worth scouting from here, or -1 if every sector was explored
+	 */
+	static int frontier(RobotController rc) {
+		MapLocation me = rc.getLocation();
+		long known = explored | visited;
+		Symmetry sym = SymmetrySolver.likeliest();
+		boolean unsure = SymmetrySolver.symmetry == Symmetry.UNKNOWN;
+		int best = -1, bestScore = 0;
+		for (int s = Sectors.COUNT; --s >= 0;) {
+			if ((known & 1L << s) != 0 || !Sectors.onMap(s))
+				continue;
+			MapLocation c = Sectors.center(s);
+			boolean mirrorKnown = (known & 1L << Sectors.of(RobotPlayer.mirror(rc, c, sym))) != 0;
+			int value = 1 + (!mirrorKnown ? 2 : unsure ? 1 : 0);
+			int steps = Math.max(Math.abs(c.x - me.x), Math.abs(c.y - me.y));
+			int score = value * 1024 / (steps + 4);
+			if (score > bestScore) {
+				bestScore = score;
+				best = s;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,196 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * A coarse flow field toward the enemy HQ, computed by one HQ in spare bytecode and published per sector.
+ *
+ * The HQ runs a breadth first search from the target over its map memory. Unknown tiles take the terrain of their
+ * mirror once the symmetry is known and count as passable otherwise, so the field mainly routes around the walls
+ * seen near our HQs and, mirrored, near theirs. Every sector then gets the direction the search came from at the
+ * reached tile closest to the sector's center. Robots headed for the published target whose tile they do not
+ * remember aim their own search a few steps along their sector's hint instead of straight at the target.
+ *
+ * Only the field toward the enemy HQ fits in the shared array; wells and our own HQs are reached by local search.
+ */
+final class FlowField {
+
+	// bytecodes the work between two clock reads costs at most: CHECK_EVERY tiles or search nodes, or one sector's
+	// hint (up to 10 x 10 tiles scanned) and its write
+	static final int TILE_COST = 45, NODE_COST = 200, PUBLISH_COST = 2500;
+	static final int CHECK_EVERY = 4;
+
+	/**
+	 * Rebuilds the field whenever its target changes. Runs on the HQ that registered first, the others drop it.
+	 */
+	static final class BuildTask extends Task {
+		private static final int PASSABLE = 0, SEARCH = 1, PUBLISH = 2, DONE = 3;
+
+		private final byte[] open = new byte[MapMemory.CELLS]; // 1 = passable
+		private final int[] dist = new int[MapMemory.CELLS]; // distance + 1, 0 = not reached
+		private final byte[] dir = new byte[MapMemory.CELLS]; // Direction ordinal toward the target
+		private final int[] queue = new int[MapMemory.CELLS];
+		private int head, tail;
+
+		private int phase = DONE;
+		private int cursor; // tile (PASSABLE, row major) or sector (PUBLISH) to continue from
+		private MapLocation target;
+		private int eliminated = -1;
+
+		BuildTask(int priority) {
+			super(priority);
+		}
+
+		@Override
+		boolean step(RobotController rc, int reserve) throws GameActionException {
+			if (WorldModel.hqCount > 0 && WorldModel.hqLoc[0] != WorldModel.pack(rc.getLocation()))
+				return true;
+			if (Profiler.ENABLED)
+				Profiler.begin(Profiler.FLOW);
+			MapLocation next = target(rc);
+			if (!next.equals(target) || eliminated != SymmetrySolver.eliminated) {
+				target = next;
+				eliminated = SymmetrySolver.eliminated;
+				phase = PASSABLE;
+				cursor = 0;
+			}
+			int w = rc.getMapWidth(), h = rc.getMapHeight();
+			work: while (phase != DONE) {
+				switch (phase) {
+					case PASSABLE:
+						if (!fill(w, h, reserve + CHECK_EVERY * TILE_COST))
+							break work;
+						startSearch();
+						phase = SEARCH;
+						break;
+					case SEARCH:
+						if (!search(reserve + CHECK_EVERY * NODE_COST))
+							break work;
+						phase = PUBLISH;
+						cursor = 0;
+						break;
+					case PUBLISH:
+						if (Clock.getBytecodesLeft() < reserve + PUBLISH_COST)
+							break work;
+						// no target while the hints are half written
+						if (cursor == 0 && !Comms.write(rc, Comms.FLOW_OFFSET, Comms.LOC_BITS, 0))
+							break work;
+						if (!Comms.writeFlowHint(rc, cursor, hint(cursor, w, h)))
+							break work;
+						if (++cursor == Sectors.COUNT) {
+							Comms.writeFlowTarget(rc, target);
+							phase = DONE;
+						}
+						break;
+				}
+			}
+			if (Profiler.ENABLED)
+				Profiler.end(Profiler.FLOW);
+			return false;
+		}
+
+		private MapLocation target(RobotController rc) {
+			MapLocation me = rc.getLocation();
+			MapLocation best = null;
+			for (int i = WorldModel.enemyHqCount; --i >= 0;) {
+				MapLocation hq = WorldModel.location(WorldModel.enemyHqLoc[i]);
+				if (best == null || me.distanceSquaredTo(hq) < me.distanceSquaredTo(best))
+					best = hq;
+			}
+			return best != null ? best : RobotPlayer.mirror(rc, me, SymmetrySolver.likeliest());
+		}
+
+		/**
+		 * Marks the passable tiles, continuing from cursor.
+		 *
+		 * @return true once every tile is done, false if the clock fell below stop first
+		 */
+		private boolean fill(int w, int h, int stop) {
+			int[] tiles = MapMemory.tiles;
+			byte[] open = this.open;
+			int[] dist = this.dist;
+			for (int end = w * h; cursor < end; cursor++) {
+				if ((cursor & (CHECK_EVERY - 1)) == 0 && Clock.getBytecodesLeft() < stop)
+					return false;
+				int i = MapMemory.index(cursor % w, cursor / w);
+				int t = tiles[i];
+				if ((t & MapMemory.KNOWN) == 0) {
+					int m = SymmetrySolver.mirrorIndex(i);
+					if (m >= 0)
+						t = tiles[m];
+				}
+				open[i] = (byte) ((t & MapMemory.WALL) == 0 ? 1 : 0);
+				dist[i] = 0;
+			}
+			return true;
+		}
+
+		private void startSearch() {
+			int t = MapMemory.index(target.x, target.y);
+			head = tail = 0;
+			queue[tail++] = t;
+			dist[t] = 1;
+			dir[t] = (byte) Direction.CENTER.ordinal();
+		}
+
+		/**
+		 * Continues the search.
+		 *
+		 * @return true once the queue is empty, false if the clock fell below stop first
+		 */
+		private boolean search(int stop) {
+			int[] offsets = Pathfinder.OFFSETS;
+			byte[] open = this.open, dir = this.dir;
+			int[] dist = this.dist, queue = this.queue;
+			while (head != tail) {
+				if ((head & (CHECK_EVERY - 1)) == 0 && Clock.getBytecodesLeft() < stop)
+					return false;
+				int cur = queue[head++];
+				int d = dist[cur] + 1;
+				for (int k = 8; --k >= 0;) {
+					int n = cur + offsets[k];
+					if (open[n] == 1 && dist[n] == 0) {
+						dist[n] = d;
+						dir[n] = (byte) ((k + 4) & 7); // from n back toward cur
+						queue[tail++] = n;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return the direction at the reached tile closest to the sector's center, or straight at the target if the
+		 *         search reached none of the sector
+		 */
+		private int hint(int sector, int w, int h) {
+			MapLocation c = Sectors.center(sector);
+			int x0 = (sector % Sectors.SIDE) * Sectors.width, y0 = (sector / Sectors.SIDE) * Sectors.height;
+			int x1 = Math.min(w, x0 + Sectors.width), y1 = Math.min(h, y0 + Sectors.height);
+			int best = -1, bestDist = Integer.MAX_VALUE;
+			for (int y = y0; y < y1; y++) {
+				for (int x = x0, i = MapMemory.index(x0, y); x < x1; x++, i++) {
+					if (dist[i] == 0)
+						continue;
+					int dd = (x - c.x) * (x - c.x) + (y - c.y) * (y - c.y);
+					if (dd < bestDist) {
+						bestDist = dd;
+						best = i;
+					}
+				}
+			}
+			if (best < 0 || dir[best] == Direction.CENTER.ordinal())
+				return Geometry.octant(target.x - c.x, target.y - c.y) & 7;
+			return dir[best];
+		}
+	}
+
+	/**
+	 * @return the published direction toward target from loc, or null if the field does not lead to target
+	 */
+	static Direction hint(MapLocation loc, MapLocation target) {
+		if (!target.equals(Comms.readFlowTarget()))
+			return null;
+		return Geometry.DIRECTIONS[Comms.readFlowHint(Sectors.of(loc))];
+	}
+}
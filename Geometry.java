@@ -0,0 +1,108 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Integer-only geometry: direction from a delta, square roots of squared distances and the tile offsets inside a
+ * radius. Small square roots are table lookups, nothing here touches floating point.
+ */
+final class Geometry {
+
+	static final Direction[] DIRECTIONS = Direction.values(); // by ordinal, CENTER last
+
+	// largest squared distance with precomputed square roots and offset lists (HQ vision)
+	static final int MAX_R2 = 34;
+	private static final int[] ISQRT = new int[MAX_R2 + 1];
+
+	private static final int[][] offsetDx = new int[MAX_R2 + 1][];
+	private static final int[][] offsetDy = new int[MAX_R2 + 1][];
+
+	static {
+		for (int r2 = 0, r = 0; r2 <= MAX_R2; r2++) {
+			while ((r + 1) * (r + 1) <= r2)
+				r++;
+			ISQRT[r2] = r;
+		}
+	}
+
+	/**
+	 * The 45 degree sector a delta points into, ties go to the diagonal. tan(22.5 degrees) is approximated by 29/70.
+	 *
+	 * @return the ordinal of the Direction closest to the delta's angle, CENTER for (0, 0)
+	 */
+	static int octant(int dx, int dy) {
+		if (dx == 0 && dy == 0)
+			return Direction.CENTER.ordinal();
+		int ax = dx < 0 ? -dx : dx;
+		int ay = dy < 0 ? -dy : dy;
+		if (ay * 70 < ax * 29)
+			return dx > 0 ? Direction.EAST.ordinal() : Direction.WEST.ordinal();
+		if (ax * 70 < ay * 29)
+			return dy > 0 ? Direction.NORTH.ordinal() : Direction.SOUTH.ordinal();
+		if (dx > 0)
+			return dy > 0 ? Direction.NORTHEAST.ordinal() : Direction.SOUTHEAST.ordinal();
+		return dy > 0 ? Direction.NORTHWEST.ordinal() : Direction.SOUTHWEST.ordinal();
+	}
+
+	/**
+	 * @return floor(sqrt(r2))
+	 */
+	static int isqrt(int r2) {
+		if (r2 <= MAX_R2)
+			return ISQRT[r2];
+		// Newton's method from above, a handful of iterations for map sized distances
+		int r = r2, next = (r2 + 1) >> 1;
+		while (next < r) {
+			r = next;
+			next = (r + r2 / r) >> 1;
+		}
+		return r;
+	}
+
+	/**
+	 * The x offsets of all tiles within squared distance r2 (0 <= r2 <= MAX_R2) of the origin, nearest first. The
+	 * matching y offsets are {@link #offsetsY(int)}; both arrays are shared and must not be modified.
+	 */
+	static int[] offsetsX(int r2) {
+		if (offsetDx[r2] == null)
+			buildOffsets(r2);
+		return offsetDx[r2];
+	}
+
+	static int[] offsetsY(int r2) {
+		if (offsetDy[r2] == null)
+			buildOffsets(r2);
+		return offsetDy[r2];
+	}
+
+	private static void buildOffsets(int r2) {
+		int r = ISQRT[r2];
+		int count = 0;
+		for (int dx = -r; dx <= r; dx++) {
+			for (int dy = -r; dy <= r; dy++) {
+				if (dx * dx + dy * dy <= r2)
+					count++;
+			}
+		}
+		int[] xs = new int[count];
+		int[] ys = new int[count];
+		int n = 0;
+		// insertion by squared distance keeps the lists ordered nearest first
+		for (int dx = -r; dx <= r; dx++) {
+			for (int dy = -r; dy <= r; dy++) {
+				int d = dx * dx + dy * dy;
+				if (d > r2)
+					continue;
+				int i = n++;
+				for (; i > 0 && xs[i - 1] * xs[i - 1] + ys[i - 1] * ys[i - 1] > d; i--) {
+					xs[i] = xs[i - 1];
+					ys[i] = ys[i - 1];
+				}
+				xs[i] = dx;
+				ys[i] = dy;
+			}
+		}
+		offsetDx[r2] = xs;
+		offsetDy[r2] = ys;
+	}
+}
@@ -0,0 +1,194 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Per robot memory of the terrain seen so far.
+ *
+ * The map is stored as one packed int per tile in a 64 wide grid with a one tile border around the 60x60 maximum
+ * map, so x/y are a shift and a mask away from the index and neighbours off the map read as unknown. Terrain never
+ * changes, so after the first full scan only the tiles that came into vision by the last step are sensed.
+ */
+final class MapMemory {
+
+	static final int STRIDE = 64;
+	static final int CELLS = (GameConstants.MAP_MAX_HEIGHT + 2) * STRIDE;
+
+	// tile layout: 0 known, 1 wall, 2..5 current, 6 cloud, 7..9 well, 10..15 island, 16..26 round recorded
+	static final int KNOWN = 1;
+	static final int WALL = 1 << 1;
+	static final int CURRENT_SHIFT = 2; // Direction ordinal + 1, 0 = no current
+	static final int CURRENT_MASK = 0b1111 << CURRENT_SHIFT;
+	static final int CLOUD = 1 << 6;
+	static final int WELL_SHIFT = 7; // ResourceType ordinal + 1, 0 = no well
+	static final int ISLAND_SHIFT = 10; // island index + 1, 0 = no island
+	static final int ROUND_SHIFT = 16;
+
+	static final int[] tiles = new int[CELLS];
+	static int width, height; // of the map, set on the first update
+
+	// Direction ordinal from (dy + 1) * 3 + dx + 1
+	private static final int[] DIRECTION_INDEX = { 5, 4, 3, 6, 8, 2, 7, 0, 1 };
+
+	private static MapLocation lastLoc;
+	private static int[][] edgeDx, edgeDy;
+
+	static int index(int x, int y) {
+		return (y + 1) * STRIDE + x + 1;
+	}
+
+	static int x(int index) {
+		return (index & (STRIDE - 1)) - 1;
+	}
+
+	static int y(int index) {
+		return (index >> 6) - 1;
+	}
+
+	static boolean isPassable(int index) {
+		return (tiles[index] & (KNOWN | WALL)) == KNOWN;
+	}
+
+	/**
+	 * @return the ordinal of the current's direction on the tile, or -1 if there is none (or it is unknown)
+	 */
+	static int currentAt(int index) {
+		return ((tiles[index] >> CURRENT_SHIFT) & 0b1111) - 1;
+	}
+
+	static boolean hasCloud(int index) {
+		return (tiles[index] & CLOUD) != 0;
+	}
+
+	/**
+	 * @return the ordinal of the well's resource type on the tile, or -1 if there is none (or it is unknown)
+	 */
+	static int wellAt(int index) {
+		return ((tiles[index] >> WELL_SHIFT) & 0b111) - 1;
+	}
+
+	/**
+	 * Records the tiles that became visible since the last call. Does nothing if the robot has not moved.
+	 */
+	static void update(RobotController rc) throws GameActionException {
+		MapLocation me = rc.getLocation();
+		if (me.equals(lastLoc))
+			return;
+
+		if (edgeDx == null) {
+			width = rc.getMapWidth();
+			height = rc.getMapHeight();
+			buildEdges(rc.getType().visionRadiusSquared);
+			SymmetrySolver.init(width, height);
+			Sectors.init(width, height);
+		}
+
+		boolean scanned;
+		int dx = lastLoc == null ? 2 : me.x - lastLoc.x;
+		int dy = lastLoc == null ? 2 : me.y - lastLoc.y;
+		if (dx < -1 || dx > 1 || dy < -1 || dy > 1 || hasCloud(index(lastLoc.x, lastLoc.y))) {
+			// first scan, pushed by a current or vision was reduced by a cloud -> rescan everything
+			scanned = fullScan(rc);
+		} else {
+			scanned = edgeScan(rc, me, DIRECTION_INDEX[(dy + 1) * 3 + dx + 1]);
+		}
+		lastLoc = me;
+
+		if (scanned) {
+			for (WellInfo wi : rc.senseNearbyWells()) {
+				MapLocation l = wi.getMapLocation();
+				int i = index(l.x, l.y);
+				if (wellAt(i) == -1)
+					tiles[i] |= (wi.getResourceType().ordinal() + 1) << WELL_SHIFT;
+			}
+		}
+	}
+
+	private static boolean fullScan(RobotController rc) throws GameActionException {
+		boolean scanned = false;
+		int round = rc.getRoundNum();
+		for (MapInfo mi : rc.senseNearbyMapInfos()) {
+			MapLocation l = mi.getMapLocation();
+			int i = index(l.x, l.y);
+			if ((tiles[i] & KNOWN) != 0)
+				continue;
+			record(rc, mi, i, round);
+			scanned = true;
+		}
+		return scanned;
+	}
+
+	private static boolean edgeScan(RobotController rc, MapLocation me, int d) throws GameActionException {
+		boolean scanned = false;
+		int round = rc.getRoundNum();
+		int width = rc.getMapWidth();
+		int height = rc.getMapHeight();
+		int[] dxs = edgeDx[d];
+		int[] dys = edgeDy[d];
+		for (int k = dxs.length; --k >= 0;) {
+			int x = me.x + dxs[k];
+			int y = me.y + dys[k];
+			if (x < 0 || y < 0 || x >= width || y >= height)
+				continue;
+			int i = index(x, y);
+			if ((tiles[i] & KNOWN) != 0)
+				continue;
+			MapLocation l = new MapLocation(x, y);
+			if (!rc.canSenseLocation(l))
+				continue;
+			record(rc, rc.senseMapInfo(l), i, round);
+			scanned = true;
+		}
+		return scanned;
+	}
+
+	private static void record(RobotController rc, MapInfo mi, int i, int round) throws GameActionException {
+		int v = KNOWN | round << ROUND_SHIFT;
+		if (!mi.isPassable())
+			v |= WALL;
+		if (mi.hasCloud())
+			v |= CLOUD;
+		Direction current = mi.getCurrentDirection();
+		if (current != null && current != Direction.CENTER)
+			v |= (current.ordinal() + 1) << CURRENT_SHIFT;
+		int island = rc.senseIsland(mi.getMapLocation());
+		if (island != -1)
+			v |= (island + 1) << ISLAND_SHIFT;
+		tiles[i] = v;
+		SymmetrySolver.queue(i); // checked at the end of the turn, once the tile's well is known too
+	}
+
+	/**
+	 * For every step direction, the offsets (relative to the new location) of the tiles that were not in vision
+	 * before the step.
+	 */
+	private static void buildEdges(int r2) {
+		edgeDx = new int[8][];
+		edgeDy = new int[8][];
+		int r = Geometry.isqrt(r2);
+		Direction[] dirs = Direction.values();
+		for (int d = 0; d < 8; d++) {
+			int sx = dirs[d].dx;
+			int sy = dirs[d].dy;
+			int count = 0;
+			for (int dx = -r; dx <= r; dx++) {
+				for (int dy = -r; dy <= r; dy++) {
+					if (dx * dx + dy * dy <= r2 && (dx + sx) * (dx + sx) + (dy + sy) * (dy + sy) > r2)
+						count++;
+				}
+			}
+			edgeDx[d] = new int[count];
+			edgeDy[d] = new int[count];
+			count = 0;
+			for (int dx = -r; dx <= r; dx++) {
+				for (int dy = -r; dy <= r; dy++) {
+					if (dx * dx + dy * dy <= r2 && (dx + sx) * (dx + sx) + (dy + sy) * (dy + sy) > r2) {
+						edgeDx[d][count] = dx;
+						edgeDy[d][count] = dy;
+						count++;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Launcher combat for one turn.
+ *
+ * One pass over the enemies in sight fills, for each of the nine tiles the launcher can end its move on, the damage
+ * enemy launchers could deal there and the best target in range from there. Every tile is then scored for both
+ * orders, shoot from here and then move, or move and then shoot, by damage dealt against damage taken, and the best
+ * pair is executed. All state lives in fixed arrays.
+ */
+final class Micro {
+
+	private static final int CANDIDATES = 9; // the eight directions, then CENTER
+
+	private static final boolean[] open = new boolean[CANDIDATES];
+	private static final int[] cx = new int[CANDIDATES];
+	private static final int[] cy = new int[CANDIDATES];
+	private static final int[] threat = new int[CANDIDATES]; // damage enemy launchers can deal on the tile
+	private static final RobotInfo[] target = new RobotInfo[CANDIDATES]; // best target from the tile
+	private static final int[] targetScore = new int[CANDIDATES];
+
+	/**
+	 * Moves and attacks if an enemy is in sight.
+	 *
+	 * @return false if there was nothing to fight, so the caller's normal behaviour runs
+	 */
+	static boolean fight(RobotController rc) throws GameActionException {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.ATTACK);
+		MapLocation me = rc.getLocation();
+		boolean canMove = rc.isMovementReady();
+		for (int k = CANDIDATES; --k >= 0;) {
+			Direction d = Geometry.DIRECTIONS[k];
+			open[k] = d == Direction.CENTER || (canMove && rc.canMove(d));
+			cx[k] = me.x + d.dx;
+			cy[k] = me.y + d.dy;
+			threat[k] = 0;
+			target[k] = null;
+			targetScore[k] = 0;
+		}
+
+		int range = rc.getType().actionRadiusSquared;
+		int damage = rc.getType().damage;
+		int enemyRange = RobotType.LAUNCHER.actionRadiusSquared;
+		int enemyDamage = RobotType.LAUNCHER.damage;
+		boolean seen = false;
+		for (int b = Nearby.bucket(Nearby.ENEMY, RobotType.HEADQUARTERS) + 1; b < Nearby.robots.length; b++) {
+			RobotInfo[] robots = Nearby.robots[b];
+			for (int i = Nearby.count[b]; --i >= 0;) {
+				RobotInfo r = robots[i];
+				seen = true;
+				int ex = r.location.x, ey = r.location.y;
+				boolean shoots = r.type == RobotType.LAUNCHER;
+				// launchers first, then whatever dies soonest; a target we can kill this turn ranks highest
+				int score = (shoots ? 1000 : 0) + (r.health <= damage ? 2000 : 0) + 500 - r.health;
+				for (int k = CANDIDATES; --k >= 0;) {
+					if (!open[k])
+						continue;
+					int dx = ex - cx[k], dy = ey - cy[k];
+					int d = dx * dx + dy * dy;
+					if (shoots && d <= enemyRange)
+						threat[k] += enemyDamage;
+					if (d <= range && score > targetScore[k]) {
+						targetScore[k] = score;
+						target[k] = r;
+					}
+				}
+			}
+		}
+		if (!seen) {
+			if (Profiler.ENABLED)
+				Profiler.end(Profiler.ATTACK);
+			return false;
+		}
+
+		boolean canAttack = rc.isActionReady();
+		int here = Direction.CENTER.ordinal();
+		// when a hit could kill us, getting out of range is worth more than a shot
+		int takenWeight = rc.getHealth() <= 2 * enemyDamage ? 3 : 1;
+		int best = here;
+		boolean shootFirst = false;
+		int bestScore = Integer.MIN_VALUE;
+		for (int k = CANDIDATES; --k >= 0;) { // CENTER first -> ties keep the launcher in place
+			if (!open[k])
+				continue;
+			int taken = threat[k] * takenWeight;
+			// shoot from the current tile, then move to k
+			int first = (canAttack && target[here] != null ? dealt(target[here], damage) : 0) - taken;
+			// move to k, then shoot from there
+			int second = (canAttack && target[k] != null ? dealt(target[k], damage) : 0) - taken;
+			if (first > bestScore) {
+				bestScore = first;
+				best = k;
+				shootFirst = true;
+			}
+			if (second > bestScore) {
+				bestScore = second;
+				best = k;
+				shootFirst = false;
+			}
+		}
+
+		if (shootFirst && target[here] != null && rc.canAttack(target[here].location))
+			rc.attack(target[here].location);
+		if (best != here)
+			rc.move(Geometry.DIRECTIONS[best]);
+		if (!shootFirst && target[best] != null && rc.canAttack(target[best].location))
+			rc.attack(target[best].location);
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.ATTACK);
+		return true;
+	}
+
+	private static int dealt(RobotInfo r, int damage) {
+		// a kill also removes the robot's damage from next turn
+		return r.health <= damage ? 2 * damage : damage;
+	}
+}
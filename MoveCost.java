@@ -0,0 +1,50 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * What a step onto a tile really does, from the remembered terrain.
+ *
+ * A robot that ends its turn on a current is carried one tile along it if that tile is free, so a step lands on
+ * the current's target: riding a current is a free tile, stepping against one goes nowhere. Cooldowns are 20% longer
+ * in a cloud, so a step ending in one costs CLOUD instead of BASE. Carriers are carried like everyone else.
+ */
+final class MoveCost {
+
+	static final int BASE = 10; // cost of a step, in tenths of the robot's movement cooldown
+	static final int CLOUD = 12; // the same step ending in a cloud (+20% cooldown)
+
+	/**
+	 * @return the MapMemory index where a robot ends its turn after stepping onto tile i
+	 */
+	static int landing(int i) {
+		int c = MapMemory.currentAt(i);
+		if (c < 0)
+			return i;
+		int j = i + Pathfinder.OFFSETS[c];
+		// pushed only onto passable tiles on the map; unknown ones are assumed passable
+		int x = MapMemory.x(j), y = MapMemory.y(j);
+		if (x < 0 || y < 0 || x >= MapMemory.width || y >= MapMemory.height)
+			return i;
+		return (MapMemory.tiles[j] & (MapMemory.KNOWN | MapMemory.WALL)) == (MapMemory.KNOWN | MapMemory.WALL) ? i : j;
+	}
+
+	/**
+	 * @return the cost of stepping onto tile i, in tenths of a plain step's cooldown
+	 */
+	static int cost(int i) {
+		return MapMemory.hasCloud(i) ? CLOUD : BASE;
+	}
+
+	/**
+	 * @return true if a step in direction d from the tile at index from still makes progress along d once the
+	 *         current at its destination has moved the robot (pushed back or purely sideways does not)
+	 */
+	static boolean advances(int from, Direction d) {
+		int to = from + Pathfinder.OFFSETS[d.ordinal()];
+		int land = landing(to);
+		int nx = MapMemory.x(land) - MapMemory.x(from);
+		int ny = MapMemory.y(land) - MapMemory.y(from);
+		return nx * d.dx + ny * d.dy > 0;
+	}
+}
@@ -0,0 +1,5 @@
+package realplayer2;
+
+enum MoveStatus {
+	ON, ADJACENT, MOVING, FAILED
+}
@@ -0,0 +1,88 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * The robots in sight, bucketed by side and RobotType in one pass over senseNearbyRobots().
+ *
+ * Each bucket keeps its robots, a count and the sums of the robots' coordinates (for centroids).
+ * The arrays are reused between scans, and a scan is skipped if neither the round nor the robot's location changed
+ * since the last one.
+ */
+final class Nearby {
+
+	static final int ALLY = 0, ENEMY = 1;
+
+	private static final int TYPES = RobotType.values().length;
+
+	static final RobotInfo[][] robots = new RobotInfo[2 * TYPES][];
+	static final int[] count = new int[2 * TYPES];
+	static final int[] sumX = new int[2 * TYPES];
+	static final int[] sumY = new int[2 * TYPES];
+
+	private static int scannedRound = -1;
+	private static MapLocation scannedLoc;
+
+	static {
+		for (int b = 2 * TYPES; --b >= 0;)
+			robots[b] = new RobotInfo[8];
+	}
+
+	static int bucket(int side, RobotType type) {
+		return side * TYPES + type.ordinal();
+	}
+
+	static void scan(RobotController rc) throws GameActionException {
+		MapLocation me = rc.getLocation();
+		int round = rc.getRoundNum();
+		if (round == scannedRound && me.equals(scannedLoc))
+			return;
+		scannedRound = round;
+		scannedLoc = me;
+
+		for (int b = 2 * TYPES; --b >= 0;) {
+			count[b] = 0;
+			sumX[b] = 0;
+			sumY[b] = 0;
+		}
+		Team us = rc.getTeam();
+		RobotInfo[] all = rc.senseNearbyRobots();
+		for (int i = all.length; --i >= 0;) {
+			RobotInfo r = all[i];
+			int b = (r.team == us ? 0 : TYPES) + r.type.ordinal();
+			int n = count[b];
+			RobotInfo[] list = robots[b];
+			if (n == list.length) {
+				RobotInfo[] grown = new RobotInfo[2 * n];
+				System.arraycopy(list, 0, grown, 0, n);
+				robots[b] = list = grown;
+			}
+			list[n] = r;
+			count[b] = n + 1;
+			sumX[b] += r.location.x;
+			sumY[b] += r.location.y;
+		}
+	}
+
+	static int count(int side, RobotType type) {
+		return count[side * TYPES + type.ordinal()];
+	}
+
+	/**
+	 * @return the closest robot of a bucket to loc, or null if the bucket is empty
+	 */
+	static RobotInfo closest(int side, RobotType type, MapLocation loc) {
+		int b = side * TYPES + type.ordinal();
+		RobotInfo[] list = robots[b];
+		RobotInfo best = null;
+		int bestDist = Integer.MAX_VALUE;
+		for (int i = count[b]; --i >= 0;) {
+			int d = loc.distanceSquaredTo(list[i].location);
+			if (d < bestDist) {
+				bestDist = d;
+				best = list[i];
+			}
+		}
+		return best;
+	}
+}
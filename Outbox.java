@@ -0,0 +1,139 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Discoveries waiting to be written to the shared array.
+ *
+ * A robot can only write near an HQ, amplifier or one of our islands, so what it senses elsewhere is queued here
+ * and flushed, most important first, on the first turn it can write again. Entries the shared array already holds
+ * are never queued, a newer sighting of the same record replaces the older one, and when the queue is full the
+ * least important (then oldest) entry is dropped. Island sightings are dropped at flush time if the shared record
+ * changed after them. Only the latest sighting of enemy fighters is kept, and it goes first since it ages fastest.
+ */
+final class Outbox {
+
+	static final int ENEMY_HQ = 0, ISLAND = 1, WELL = 2, SIGHTING = 3;
+	// flush order: fights end quickly, enemy HQs decide where launchers go, island owners change over time, wells do not
+	private static final int[] PRIORITY = { 3, 2, 1, 4 };
+
+	private static final int CAPACITY = 16;
+
+	// ordered by priority, then by round (oldest first)
+	private static final int[] kind = new int[CAPACITY];
+	private static final int[] loc = new int[CAPACITY]; // packed x | y << 6
+	// well: ResourceType ordinal, island: id << 2 | Team ordinal, sighting: size bucket
+	private static final int[] value = new int[CAPACITY];
+	private static final int[] round = new int[CAPACITY];
+	private static int size = 0;
+
+	private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+	private static final Team[] TEAMS = Team.values();
+
+	static void enemyHq(RobotController rc, MapLocation l) {
+		int p = WorldModel.pack(l);
+		for (int i = WorldModel.enemyHqCount; --i >= 0;) {
+			if (WorldModel.enemyHqLoc[i] == p)
+				return;
+		}
+		post(rc, ENEMY_HQ, p, 0);
+	}
+
+	static void well(RobotController rc, MapLocation l, ResourceType type) {
+		int p = WorldModel.pack(l);
+		for (int i = Comms.WELL_COUNT; --i >= 0;) {
+			if (WorldModel.wellLoc[i] == p)
+				return;
+		}
+		post(rc, WELL, p, type.ordinal());
+	}
+
+	static void island(RobotController rc, int id, MapLocation l, Team team) {
+		int slot = id % Comms.ISLAND_COUNT;
+		if (WorldModel.islandLoc[slot] != WorldModel.NONE && WorldModel.islandTeam[slot] == team.ordinal())
+			return;
+		post(rc, ISLAND, WorldModel.pack(l), id << 2 | team.ordinal());
+	}
+
+	static void sighting(RobotController rc, MapLocation l, int size) {
+		post(rc, SIGHTING, WorldModel.pack(l), size);
+	}
+
+	private static void post(RobotController rc, int k, int l, int v) {
+		// the same record queued before -> drop the old entry, the new one goes behind its equals
+		for (int i = size; --i >= 0;) {
+			if (kind[i] == k && (k == SIGHTING || (k == ISLAND ? value[i] >> 2 == v >> 2 : loc[i] == l))) {
+				remove(i);
+				break;
+			}
+		}
+		if (size == CAPACITY) {
+			int last = PRIORITY[kind[size - 1]];
+			if (last > PRIORITY[k])
+				return; // full of more important entries
+			int i = size - 1;
+			while (i > 0 && PRIORITY[kind[i - 1]] == last)
+				i--;
+			remove(i);
+		}
+		int i = size++;
+		for (; i > 0 && PRIORITY[kind[i - 1]] < PRIORITY[k]; i--) {
+			kind[i] = kind[i - 1];
+			loc[i] = loc[i - 1];
+			value[i] = value[i - 1];
+			round[i] = round[i - 1];
+		}
+		kind[i] = k;
+		loc[i] = l;
+		value[i] = v;
+		round[i] = rc.getRoundNum();
+	}
+
+	private static void remove(int i) {
+		size--;
+		for (; i < size; i++) {
+			kind[i] = kind[i + 1];
+			loc[i] = loc[i + 1];
+			value[i] = value[i + 1];
+			round[i] = round[i + 1];
+		}
+	}
+
+	/**
+	 * Writes the queued entries in order, if the robot can write right now.
+	 */
+	static void flush(RobotController rc) throws GameActionException {
+		if (size == 0 || !rc.canWriteSharedArray(0, SharedSync.mirror[0]))
+			return;
+		int done = 0;
+		for (; done < size; done++) {
+			MapLocation l = WorldModel.location(loc[done]);
+			boolean written;
+			switch (kind[done]) {
+				case ENEMY_HQ:
+					written = Comms.writeHq(rc, l, true);
+					break;
+				case ISLAND:
+					int id = value[done] >> 2;
+					// the record changed after we saw the island -> ours is the older news
+					written = WorldModel.islandRound[id % Comms.ISLAND_COUNT] > round[done]
+							|| Comms.writeIsland(rc, id, l, TEAMS[value[done] & 0b11]);
+					break;
+				case SIGHTING:
+					written = Sightings.write(rc, l, value[done], round[done]);
+					break;
+				default:
+					written = Comms.writeWell(rc, l, RESOURCE_TYPES[value[done]]);
+			}
+			if (!written)
+				break;
+		}
+		for (int i = done; i < size; i++) {
+			kind[i - done] = kind[i];
+			loc[i - done] = loc[i];
+			value[i - done] = value[i];
+			round[i - done] = round[i];
+		}
+		size -= done;
+	}
+}
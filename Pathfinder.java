@@ -0,0 +1,252 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Bounded BFS over the remembered terrain.
+ *
+ * The search runs directly on the MapMemory grid, whose border is never known, so the inner loop needs no bounds
+ * checks and allocates nothing. Only tiles that have been seen are expanded; every per-search array is invalidated by
+ * bumping a stamp instead of being cleared.
+ *
+ * Steps follow MoveCost: a step onto a current is queued at the tile the current carries the robot to, and costs
+ * more when it ends in a cloud. Tiles are still expanded in step order, so costs only rank the reached tiles.
+ *
+ * The search heads for the reached tile closest to the target, so a robot in a pocket of the known terrain walks
+ * around the pocket's wall as soon as the search reaches past it. The path to that tile is kept and followed on the
+ * next steps without searching again. A search that runs out of budget before reaching any tile closer than the
+ * robot is kept as well: it continues on the next call from the same tile and in the turn's spare bytecode
+ * (SearchTask), and the robot waits for it instead of stepping away. Only a finished search without a closer tile
+ * reports no step, so the caller can follow the wall instead.
+ */
+final class Pathfinder {
+
+	static final int CELLS = MapMemory.CELLS;
+	static final int STRIDE = MapMemory.STRIDE;
+
+	// same order as Direction.values() so ordinals can be used as indices
+	static final Direction[] DIRECTIONS = { Direction.NORTH, Direction.NORTHEAST, Direction.EAST, Direction.SOUTHEAST,
+			Direction.SOUTH, Direction.SOUTHWEST, Direction.WEST, Direction.NORTHWEST };
+	static final int[] OFFSETS = { STRIDE, STRIDE + 1, 1, -STRIDE + 1, -STRIDE, -STRIDE - 1, -1, STRIDE - 1 };
+
+	private static final int[] seen = new int[CELLS]; // == stamp if already queued in this search
+	private static final int[] dist = new int[CELLS]; // summed MoveCost
+	private static final int[] from = new int[CELLS]; // tile the step onto this one was made from
+	private static final int[] via = new int[CELLS]; // direction of that step
+	private static final int[] queue = new int[CELLS];
+	private static int stamp = 0;
+
+	// the search in progress, kept while it has not reached a tile closer to goal than origin
+	private static boolean searching = false;
+	private static int origin, goal, head, tail;
+	private static int best, bestKey, originLeft;
+
+	// the last path found: path[0] is where it starts, path[k] is reached by a step in direction pathDir[k]
+	private static final int[] path = new int[CELLS];
+	private static final int[] pathDir = new int[CELLS];
+	private static int pathGoal = -1, pathLength = 0, pathAt = 0;
+
+	// bytecodes one expanded tile costs at most (score, 8 neighbours), the clock is read every CHECK_EVERY tiles
+	static final int NODE_COST = 300;
+	private static final int CHECK_EVERY = 4;
+
+	/**
+	 * Continues an unfinished search in the turn's spare bytecode.
+	 */
+	static final class SearchTask extends Task {
+		SearchTask(int priority) {
+			super(priority);
+		}
+
+		@Override
+		boolean step(RobotController rc, int reserve) {
+			if (searching)
+				expand(reserve + CHECK_EVERY * NODE_COST);
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if the last call found no step yet because its search ran out of budget; the next call from the
+	 *         same tile continues it
+	 */
+	static boolean isSearching() {
+		return searching;
+	}
+
+	/**
+	 * Searches the known tiles for the best first step towards target.
+	 *
+	 * @param target          the location to path to (may be outside of vision)
+	 * @param bytecodeCeiling the maximum number of bytecodes the search may use
+	 *
+	 * @return the direction of the first step, or null if no step could be found yet (see isSearching) or no
+	 *         reachable tile is closer to the target than the robot (it is in a pocket of the known terrain, the
+	 *         caller should follow the wall)
+	 */
+	static Direction bestStep(RobotController rc, MapLocation target, int bytecodeCeiling)
+			throws GameActionException {
+		int stop = Clock.getBytecodesLeft() - bytecodeCeiling + CHECK_EVERY * NODE_COST;
+		MapLocation me = rc.getLocation();
+		int o = MapMemory.index(me.x, me.y);
+		int g = MapMemory.index(target.x, target.y);
+
+		Direction next = follow(rc, o, g);
+		if (next != null)
+			return next;
+
+		if (!searching || o != origin || g != goal)
+			start(rc, o, g);
+		boolean finished = expand(stop);
+		if (best == -1 || bestKey >> 16 >= originLeft) {
+			// nothing closer reached: wait for the rest of the search, or give up once it is done
+			searching = !finished;
+			return null;
+		}
+		searching = false;
+		keepPath();
+		return DIRECTIONS[pathDir[1]];
+	}
+
+	/**
+	 * @return the next step along the kept path if the robot is on it and the step is still possible, else null
+	 */
+	private static Direction follow(RobotController rc, int o, int g) throws GameActionException {
+		if (g != pathGoal)
+			return null;
+		for (int k = pathAt; k < pathLength - 1; k++) {
+			if (path[k] != o)
+				continue;
+			pathAt = k;
+			int d = pathDir[k + 1];
+			if (rc.canMove(DIRECTIONS[d]) && MoveCost.landing(o + OFFSETS[d]) == path[k + 1])
+				return DIRECTIONS[d];
+			break;
+		}
+		pathGoal = -1; // left the path, reached its end or it is blocked -> search again
+		return null;
+	}
+
+	private static void start(RobotController rc, int o, int g) throws GameActionException {
+		int s = ++stamp;
+		origin = o;
+		goal = g;
+		best = -1;
+		bestKey = Integer.MAX_VALUE;
+		originLeft = left(o, g);
+		head = tail = 0;
+
+		// first ring is checked against the real controller (robots, cooldowns) -> the rest only against terrain
+		seen[o] = s;
+		for (int d = 0; d < 8; d++) {
+			if (!rc.canMove(DIRECTIONS[d]))
+				continue;
+			int j = MoveCost.landing(o + OFFSETS[d]);
+			if (seen[j] != s) { // pushed back onto the origin or where another step lands
+				seen[j] = s;
+				dist[j] = MoveCost.cost(j);
+				from[j] = o;
+				via[j] = d;
+				queue[tail++] = j;
+			}
+		}
+	}
+
+	/**
+	 * @return the chebyshev distance between two tiles
+	 */
+	private static int left(int i, int j) {
+		int dx = (j & (STRIDE - 1)) - (i & (STRIDE - 1));
+		int dy = (j >> 6) - (i >> 6);
+		if (dx < 0)
+			dx = -dx;
+		if (dy < 0)
+			dy = -dy;
+		return dx > dy ? dx : dy;
+	}
+
+	/**
+	 * Expands queued tiles until the goal is reached, the queue is empty or fewer than stop bytecodes are left.
+	 *
+	 * @return true if the search is finished
+	 */
+	private static boolean expand(int stop) {
+		int[] tiles = MapMemory.tiles;
+		int[] offsets = OFFSETS;
+		int[] seen = Pathfinder.seen, dist = Pathfinder.dist, from = Pathfinder.from, via = Pathfinder.via,
+				queue = Pathfinder.queue;
+		int s = stamp, g = goal, head = Pathfinder.head, tail = Pathfinder.tail;
+		int gx = g & (STRIDE - 1), gy = g >> 6;
+		int best = Pathfinder.best, bestKey = Pathfinder.bestKey;
+		boolean finished = true;
+
+		while (head < tail) {
+			if ((head & (CHECK_EVERY - 1)) == 0 && Clock.getBytecodesLeft() < stop) {
+				finished = false;
+				break;
+			}
+			int i = queue[head++];
+			if (i == g) {
+				best = i;
+				bestKey = 0;
+				break;
+			}
+
+			// closest to the goal (chebyshev) first, then the cheapest way there
+			int dx = gx - (i & (STRIDE - 1));
+			int dy = gy - (i >> 6);
+			if (dx < 0)
+				dx = -dx;
+			if (dy < 0)
+				dy = -dy;
+			int di = dist[i];
+			int key = (dx > dy ? dx : dy) << 16 | di;
+			if (key < bestKey) {
+				bestKey = key;
+				best = i;
+			}
+
+			for (int d = 8; --d >= 0;) {
+				int j = i + offsets[d];
+				int t = tiles[j];
+				if ((t & (MapMemory.KNOWN | MapMemory.WALL)) != MapMemory.KNOWN || seen[j] == s)
+					continue;
+				int cost = MoveCost.BASE;
+				if ((t & (MapMemory.CURRENT_MASK | MapMemory.CLOUD)) != 0) {
+					j = MoveCost.landing(j);
+					if (seen[j] == s)
+						continue;
+					cost = MoveCost.cost(j);
+				}
+				seen[j] = s;
+				dist[j] = di + cost;
+				from[j] = i;
+				via[j] = d;
+				queue[tail++] = j;
+			}
+		}
+
+		Pathfinder.head = head;
+		Pathfinder.tail = tail;
+		Pathfinder.best = best;
+		Pathfinder.bestKey = bestKey;
+		return finished;
+	}
+
+	/**
+	 * Keeps the path from the origin to the best reached tile for the next steps.
+	 */
+	private static void keepPath() {
+		int n = 0;
+		for (int i = best; i != origin; i = from[i])
+			n++;
+		pathLength = n + 1;
+		for (int i = best; n > 0; i = from[i], n--) {
+			path[n] = i;
+			pathDir[n] = via[i];
+		}
+		path[0] = origin;
+		pathAt = 0;
+		pathGoal = goal;
+	}
+}
@@ -0,0 +1,146 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Decides what an HQ builds each turn.
+ *
+ * Every option (carrier, launcher, amplifier, anchor) gets a score: its weight below times how many more of it the
+ * team needs right now. Options are taken best first while the HQ can act. An option that cannot be paid yet but
+ * will be within SAVE_TURNS at the observed income reserves its cost, so cheaper options that need the same
+ * resource wait for it while those paid from the other resource still go ahead. Resources are never left idle for
+ * anything further away.
+ */
+final class ProductionPlanner {
+
+	// objective ======================================================
+	static final int CARRIER_WEIGHT = 3, LAUNCHER_WEIGHT = 2, AMPLIFIER_WEIGHT = 2, ANCHOR_WEIGHT = 4;
+	private static final int[] WEIGHT = { CARRIER_WEIGHT, LAUNCHER_WEIGHT, AMPLIFIER_WEIGHT, ANCHOR_WEIGHT };
+	static final int SAVE_TURNS = 3;
+	static final int MIN_CARRIERS = 4; // per HQ, to scout for wells
+	static final int MAX_CARRIERS = 12; // per HQ
+	static final int AMPLIFIER_CLAIM_TURNS = 10; // rounds a new amplifier gets to claim its relay
+	static final int ANCHOR_MIN_LAUNCHERS = 15; // team launchers before anchors are worth their cost
+
+	static final int ANCHOR_ADAMANTIUM = 100, ANCHOR_MANA = 100;
+
+	private static final int CARRIER = 0, LAUNCHER = 1, AMPLIFIER = 2, ANCHOR = 3, OPTIONS = 4;
+	private static final RobotType[] TYPES = { RobotType.CARRIER, RobotType.LAUNCHER, RobotType.AMPLIFIER, null };
+	private static final int[] COST_AD = { RobotType.CARRIER.buildCostAdamantium,
+			RobotType.LAUNCHER.buildCostAdamantium, RobotType.AMPLIFIER.buildCostAdamantium, ANCHOR_ADAMANTIUM };
+	private static final int[] COST_MN = { RobotType.CARRIER.buildCostMana, RobotType.LAUNCHER.buildCostMana,
+			RobotType.AMPLIFIER.buildCostMana, ANCHOR_MANA };
+
+	// income per turn in 1/16, averaged over roughly the last 8 turns
+	static int incomeAd = 0, incomeMn = 0;
+	private static int lastAd = -1, lastMn = -1;
+
+	private static int amplifiersBuilt = 0;
+	private static int amplifierRound = -AMPLIFIER_CLAIM_TURNS; // round the last one was built
+	private static int previousClaims = 0; // carriers counted in the last claim period
+
+	private static final int[] score = new int[OPTIONS];
+	private static final boolean[] tried = new boolean[OPTIONS];
+
+	/**
+	 * Updates the income averages. Called at the start of the HQ's turn, before anything is spent.
+	 */
+	static void observe(RobotController rc) {
+		int ad = rc.getResourceAmount(ResourceType.ADAMANTIUM);
+		int mn = rc.getResourceAmount(ResourceType.MANA);
+		if (lastAd >= 0) {
+			incomeAd += ((ad - lastAd) * 16 - incomeAd) >> 3;
+			incomeMn += ((mn - lastMn) * 16 - incomeMn) >> 3;
+		}
+	}
+
+	/**
+	 * Builds what the objective asks for, as long as the HQ can act.
+	 */
+	static void build(RobotController rc) throws GameActionException {
+		int availAd = rc.getResourceAmount(ResourceType.ADAMANTIUM);
+		int availMn = rc.getResourceAmount(ResourceType.MANA);
+		for (int o = OPTIONS; --o >= 0;)
+			tried[o] = false;
+		scoreOptions(rc);
+		while (rc.isActionReady()) {
+			int best = -1;
+			for (int o = OPTIONS; --o >= 0;) {
+				if (!tried[o] && score[o] > 0 && (best < 0 || score[o] > score[best]))
+					best = o;
+			}
+			if (best < 0)
+				break;
+			if (availAd >= COST_AD[best] && availMn >= COST_MN[best]) {
+				boolean built;
+				if (best == ANCHOR) {
+					built = rc.canBuildAnchor(Anchor.STANDARD);
+					if (built)
+						rc.buildAnchor(Anchor.STANDARD);
+				} else {
+					built = SpawnPlanner.spawn(rc, TYPES[best]);
+				}
+				if (built) {
+					availAd -= COST_AD[best];
+					availMn -= COST_MN[best];
+					if (best == AMPLIFIER)
+						amplifiersBuilt++;
+					if (best != LAUNCHER) // launchers are always wanted
+						score[best] -= WEIGHT[best];
+					continue;
+				}
+				tried[best] = true; // no free tile
+				continue;
+			}
+			tried[best] = true;
+			if (turnsToAfford(availAd, availMn, best) <= SAVE_TURNS) {
+				// keep its resources for it
+				availAd -= Math.min(availAd, COST_AD[best]);
+				availMn -= Math.min(availMn, COST_MN[best]);
+			}
+		}
+		lastAd = rc.getResourceAmount(ResourceType.ADAMANTIUM);
+		lastMn = rc.getResourceAmount(ResourceType.MANA);
+	}
+
+	private static int turnsToAfford(int ad, int mn, int option) {
+		int turns = 0;
+		if (ad < COST_AD[option])
+			turns = incomeAd <= 0 ? Integer.MAX_VALUE : (COST_AD[option] - ad) * 16 / incomeAd;
+		if (mn < COST_MN[option])
+			turns = Math.max(turns, incomeMn <= 0 ? Integer.MAX_VALUE : (COST_MN[option] - mn) * 16 / incomeMn);
+		return turns;
+	}
+
+	private static void scoreOptions(RobotController rc) {
+		int round = rc.getRoundNum();
+		int hqs = Math.max(1, WorldModel.hqCount);
+
+		// carriers: enough for the wells' quotas, counted by their claims
+		int claims = 0, quotas = 0;
+		for (int i = Comms.WELL_COUNT; --i >= 0;) {
+			if (WorldModel.wellLoc[i] == WorldModel.NONE)
+				continue;
+			claims += Comms.readWellClaims(i);
+			int q = Comms.readWellQuota(i);
+			quotas += q == 0 ? Dispatcher.DEFAULT_QUOTA : q;
+		}
+		if (round % Dispatcher.CLAIM_PERIOD == 0)
+			previousClaims = claims; // read before the reset
+		int carriers = Math.max(claims, previousClaims);
+		int wanted = Math.min(MAX_CARRIERS * hqs, Math.max(MIN_CARRIERS * hqs, quotas));
+		score[CARRIER] = CARRIER_WEIGHT * Math.max(0, (wanted - carriers + hqs - 1) / hqs);
+
+		// launchers: always wanted, more with enemies in sight
+		score[LAUNCHER] = LAUNCHER_WEIGHT * (1 + Nearby.count(Nearby.ENEMY, RobotType.LAUNCHER));
+
+		// amplifiers: one per free relay position (the last one built may not have claimed yet), the first one scouts
+		int relays = (Relays.free() + hqs - 1) / hqs - (round - amplifierRound < AMPLIFIER_CLAIM_TURNS ? 1 : 0);
+		score[AMPLIFIER] = AMPLIFIER_WEIGHT * Math.max(amplifiersBuilt == 0 ? 1 : 0, relays);
+
+		// anchors: one for every free island not covered yet (assume each HQ produces the same amount)
+		int launchers = rc.getRobotCount() - hqs - carriers - amplifiersBuilt * hqs;
+		int freeIslands = WorldModel.countIslands(Team.NEUTRAL) - rc.getNumAnchors(Anchor.STANDARD) * hqs;
+		score[ANCHOR] = launchers < ANCHOR_MIN_LAUNCHERS ? 0 : ANCHOR_WEIGHT * Math.max(0, freeIslands);
+	}
+}
@@ -0,0 +1,97 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Bytecode profiler for the major phases of a turn.
+ *
+ * Every call site is guarded by {@code if (Profiler.ENABLED)}; ENABLED is a compile time constant, so with it set
+ * to false javac drops the calls and the tournament build carries no profiling code at all. Sections may span
+ * yields: the cost of the rounds in between is counted at the robot's full bytecode limit.
+ */
+final class Profiler {
+
+	static final boolean ENABLED = false;
+
+	static final int REPORT_INTERVAL = 100; // rounds between summaries
+
+	static final int RUN = 0, READ_ALL = 1, UPDATE_SHARED = 2, MOVE = 3, ATTACK = 4, SYMMETRY = 5;
+	// hot helpers
+	static final int SHARED_DECODE = 6, WEIGHTED_WELL = 7, RANDOM_ISLAND = 8, SPAWN = 9, PATH = 10, FLOW = 11;
+	static final int SECTIONS = 12;
+	private static final String[] NAMES = { "run", "readAllInformation", "updateSharedArrays", "moveToLocation",
+			"Micro.fight", "SymmetrySolver.observe", "shared array decode", "WellIndex.pickNearest", "randomIsland",
+			"HQ spawn", "Pathfinder.bestStep", "FlowField.BuildTask" };
+
+	// bytecodes a whole turn (the run section) may use per robot type, indexed by RobotType ordinal:
+	// HEADQUARTERS, CARRIER, LAUNCHER, DESTABILIZER, BOOSTER, AMPLIFIER
+	static final int[] TURN_BUDGET = { 9000, 6500, 9000, 9000, 9000, 6500 };
+
+	private static final int[] startRound = new int[SECTIONS];
+	private static final int[] startBytecode = new int[SECTIONS];
+	private static final int[] count = new int[SECTIONS];
+	private static final long[] total = new long[SECTIONS];
+	private static final int[] min = new int[SECTIONS];
+	private static final int[] max = new int[SECTIONS];
+
+	private static RobotController rc;
+	private static int turnRound = -1;
+	private static int turns = 0;
+	private static int overruns = 0; // turns that ran into an extra Clock.yield()
+	private static int overBudget = 0; // turns whose run section went over TURN_BUDGET
+	private static int lastReport = 0;
+
+	static void begin(int section) {
+		startRound[section] = rc.getRoundNum();
+		startBytecode[section] = Clock.getBytecodeNum();
+	}
+
+	static void end(int section) {
+		int cost = (rc.getRoundNum() - startRound[section]) * rc.getType().bytecodeLimit + Clock.getBytecodeNum()
+				- startBytecode[section];
+		if (count[section] == 0 || cost < min[section])
+			min[section] = cost;
+		if (cost > max[section])
+			max[section] = cost;
+		total[section] += cost;
+		count[section]++;
+
+		if (section == RUN && cost > TURN_BUDGET[rc.getType().ordinal()]) {
+			overBudget++;
+			System.out.println("[BUDGET " + rc.getType() + " #" + rc.getID() + " @" + rc.getRoundNum() + "] run used "
+					+ cost + " > " + TURN_BUDGET[rc.getType().ordinal()]);
+		}
+	}
+
+	static void beginTurn(RobotController rc) {
+		Profiler.rc = rc;
+		turnRound = rc.getRoundNum();
+	}
+
+	/**
+	 * Called right before the robot ends its turn. Counts overruns and prints the summary every REPORT_INTERVAL
+	 * rounds.
+	 */
+	static void endTurn() {
+		int round = rc.getRoundNum();
+		turns++;
+		if (round != turnRound)
+			overruns++;
+
+		if (round - lastReport < REPORT_INTERVAL)
+			return;
+		lastReport = round;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("[PROFILE ").append(rc.getType()).append(" #").append(rc.getID()).append(" @").append(round)
+				.append("] overruns ").append(overruns).append('/').append(turns).append(" over budget ")
+				.append(overBudget);
+		for (int i = 0; i < SECTIONS; i++) {
+			if (count[i] == 0)
+				continue;
+			sb.append("\n  ").append(NAMES[i]).append(" n=").append(count[i]).append(" min=").append(min[i])
+					.append(" avg=").append(total[i] / count[i]).append(" max=").append(max[i]);
+		}
+		System.out.println(sb);
+	}
+}
@@ -0,0 +1,140 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Where amplifiers stand so more of the team can write to the shared array.
+ *
+ * Every robot derives the same relay positions from the shared records, and each position keeps its index so the
+ * shared claim bits always refer to the same place. Positions 0 to CHAIN_MAX - 1 form a chain from our first HQ
+ * toward the closest known enemy HQ (or its mirror under the likeliest symmetry): the first relay sits where the
+ * HQ's write range ends, each further one two amplifier ranges on, and the chain stops FRONT_MARGIN tiles short of
+ * the enemy. The remaining positions go to the known wells out of reach of every HQ and chain relay, in the order
+ * of their shared records, which never change once written. A well's relay stands two steps from it toward the HQ,
+ * outside the tiles carriers collect from. Positions only move when an enemy HQ or the symmetry is learned.
+ * Amplifiers claim a position in a shared mask; the HQs clear the mask every Dispatcher.CLAIM_PERIOD rounds so
+ * positions of dead amplifiers become free, and holders claim theirs again.
+ */
+final class Relays {
+
+	static final int CHAIN_MAX = 2; // relays on the chain, the rest cover wells
+	static final int FRONT_MARGIN = 8;
+	static final int HOLD_R2 = 2; // distance squared from its position a relay counts as holding it
+
+	private static final int HQ_RANGE = Geometry.isqrt(RobotType.HEADQUARTERS.actionRadiusSquared);
+	private static final int RANGE = Geometry.isqrt(RobotType.AMPLIFIER.actionRadiusSquared);
+
+	static final MapLocation[] spot = new MapLocation[Comms.RELAY_COUNT]; // null = no relay needed there
+
+	private static int held = -1; // relay this robot claimed
+	private static int heldPeriod = -1; // period the claim was made in
+
+	// positions =====================================================
+
+	/**
+	 * Recomputes the relay positions from what the team knows.
+	 */
+	static void place(RobotController rc) {
+		for (int j = Comms.RELAY_COUNT; --j >= 0;)
+			spot[j] = null;
+		if (WorldModel.hqCount == 0)
+			return;
+
+		MapLocation hq = WorldModel.location(WorldModel.hqLoc[0]);
+		MapLocation front = null;
+		for (int i = WorldModel.enemyHqCount; --i >= 0;) {
+			MapLocation e = WorldModel.location(WorldModel.enemyHqLoc[i]);
+			if (front == null || hq.distanceSquaredTo(e) < hq.distanceSquaredTo(front))
+				front = e;
+		}
+		if (front == null)
+			front = RobotPlayer.mirror(rc, hq, SymmetrySolver.likeliest());
+		int dx = front.x - hq.x, dy = front.y - hq.y;
+		int length = Geometry.isqrt(dx * dx + dy * dy);
+		for (int j = 0, at = HQ_RANGE + RANGE; j < CHAIN_MAX && at <= length - FRONT_MARGIN; j++, at += 2 * RANGE)
+			spot[j] = new MapLocation(hq.x + dx * at / length, hq.y + dy * at / length);
+
+		// wells out of reach, in record order
+		int j = CHAIN_MAX;
+		for (int i = 0; i < Comms.WELL_COUNT && j < Comms.RELAY_COUNT; i++) {
+			if (WorldModel.wellLoc[i] == WorldModel.NONE)
+				continue;
+			MapLocation well = WorldModel.wellLocation(i);
+			MapLocation closest = WorldModel.closestHq(well);
+			if (!well.isWithinDistanceSquared(closest, RobotType.HEADQUARTERS.actionRadiusSquared) && !covered(well)) {
+				Direction d = well.directionTo(closest);
+				spot[j++] = well.add(d).add(d);
+			}
+		}
+	}
+
+	private static boolean covered(MapLocation loc) {
+		for (int j = Comms.RELAY_COUNT; --j >= 0;) {
+			if (spot[j] != null && spot[j].isWithinDistanceSquared(loc, RobotType.AMPLIFIER.actionRadiusSquared))
+				return true;
+		}
+		return false;
+	}
+
+	// HQ side =======================================================
+
+	/**
+	 * Clears the claims at the start of every period.
+	 */
+	static void publish(RobotController rc) throws GameActionException {
+		if (rc.getRoundNum() % Dispatcher.CLAIM_PERIOD == 0 && Comms.readRelayClaims() != 0)
+			Comms.writeRelayClaims(rc, 0);
+	}
+
+	/**
+	 * @return the number of relay positions nobody holds
+	 */
+	static int free() {
+		int claims = Comms.readRelayClaims();
+		int free = 0;
+		for (int j = Comms.RELAY_COUNT; --j >= 0;) {
+			if (spot[j] != null && (claims & 1 << j) == 0)
+				free++;
+		}
+		return free;
+	}
+
+	// amplifier side ================================================
+
+	/**
+	 * Keeps this robot's claim counted, or claims the nearest free position.
+	 *
+	 * @return the position this robot holds, or null if all are taken
+	 */
+	static MapLocation claim(RobotController rc) throws GameActionException {
+		int period = rc.getRoundNum() / Dispatcher.CLAIM_PERIOD;
+		int claims = Comms.readRelayClaims();
+		if (held >= 0 && spot[held] == null) {
+			// the position is no longer needed -> give its bit back
+			if (heldPeriod == period && Comms.writeRelayClaims(rc, claims & ~(1 << held)))
+				claims &= ~(1 << held);
+			held = -1;
+		}
+		if (held >= 0 && heldPeriod != period && (claims & 1 << held) != 0)
+			held = -1; // not re-claimed in time, someone else took it
+		if (held < 0) {
+			MapLocation me = rc.getLocation();
+			int bestDist = Integer.MAX_VALUE;
+			for (int j = Comms.RELAY_COUNT; --j >= 0;) {
+				if (spot[j] == null || (claims & 1 << j) != 0)
+					continue;
+				int d = me.distanceSquaredTo(spot[j]);
+				if (d < bestDist) {
+					bestDist = d;
+					held = j;
+				}
+			}
+			if (held < 0)
+				return null;
+			heldPeriod = -1;
+		}
+		if (heldPeriod != period && Comms.writeRelayClaims(rc, claims | 1 << held))
+			heldPeriod = period;
+		return spot[held];
+	}
+}
@@ -15,188 +15,45 @@ import battlecode.world.Island;
 import java.util.Arrays;
 import java.util.Random;
 
-final class MyWellInfo {
-	MapLocation loc;
-	ResourceType resourceType;
-
-	public MyWellInfo(MapLocation loc, ResourceType resourceType) {
-		this.loc = loc;
-		this.resourceType = resourceType;
-	}
-
-	public String toString() {
-		return loc.toString();
-	}
-}
-
-final class MyIslandInfo {
-	MapLocation loc;
-	Team team;
-	int index;
-
-	public MyIslandInfo(int index, Team team, MapLocation loc) {
-		this.loc = loc;
-		this.team = team;
-		this.index = index;
-	}
-
-	public String toString() {
-		return loc.toString();
-	}
-}
-
-enum MoveStatus {
-	ON, ADJACENT, FAILED
-}
-
-enum Symmetry {
-	ROTATION, HORIZONTAL, VERTICAL, UNKNOWN
+enum CarrierState {
+	SEEK_WELL, COLLECT, RETURN, DEPOSIT, FETCH_ANCHOR, PLACE_ANCHOR, FLEE
 }
 
 public strictfp class RobotPlayer {
 
-	static final int HQ_START = 0, HQ_END = 3, ENEMY_HQ_START = 4, ENEMY_HQ_END = 7, WELL_START = 8, WELL_END = 13,
-			ISLAND_START = 14, ISLAND_END = 48, SYMMETRY_INDEX = 49;
-
 	static int turnCount = 0;
 
 	static final Random rng = new Random();
 
 	static void yield(int a, RobotController rc) throws GameActionException {
 		if (Clock.getBytecodesLeft() < a) {
-			Clock.yield();
+			endTurn(rc);
 			readAllInformation(rc);
 		}
 	}
 
-	private static void writeHQLocationToSharedArray(RobotController rc, MapLocation loc, boolean isEnemy)
-			throws GameActionException {
-		if (loc == null)
-			return;
-
-		int d = loc.y << 6 | loc.x | (1 << 12);
-		int i = !isEnemy ? HQ_START : ENEMY_HQ_START;
-		for (; i <= (!isEnemy ? HQ_END : ENEMY_HQ_END); i++) {
-			int v = rc.readSharedArray(i);
-			if (v == d)
-				return;
-			if (v == 0)
-				break;
-		}
-		if (i <= (!isEnemy ? HQ_END : ENEMY_HQ_END) && rc.canWriteSharedArray(i, d)) {
-			rc.writeSharedArray(i, d);
-		}
-
-		// 13 bits (the 1 << 12 is to ensure that (0, 0) is a non 0 number -> 0 is
-		// equivalent to null)
-		// 0..6 7..12 13 for: x y control
-	}
-
-	private static MapLocation readHQLocationFromSharedArray(RobotController rc, int index, boolean isEnemy)
-			throws GameActionException {
-		int coord = rc.readSharedArray(index + (!isEnemy ? HQ_START : ENEMY_HQ_START));
-		if (coord == 0)
-			return null;
-
-		return new MapLocation(coord & 0b111111, (coord >> 6) & 0b111111);
-	}
-
-	private static void writeWellInfoToSharedArray(RobotController rc, WellInfo wi) throws GameActionException {
-		if (wi == null)
-			return;
-
-		if (!rc.onTheMap(wi.getMapLocation()))
-			return;
-
-		yield(500, rc);
-
-		int d = wi.getMapLocation().y << 6 | wi.getMapLocation().x | (1 << 14);
-		d |= ((wi.getResourceType().ordinal() & 0b11) << 12);
-		// 0..6 7..12 13 14 15 for: x y type type control // two bits for the type 00 =
-		// AD, 01 = EX, 10 = MN, 11 = NO
-
-		int i = WELL_START;
-		for (; i <= WELL_END; i++) {
-			int v = rc.readSharedArray(i);
-			if (v == d)
-				return;
-			if (v == 0)
-				break;
-		}
-		if (i <= WELL_END && rc.canWriteSharedArray(i, d)) {
-			rc.writeSharedArray(i, d);
-		}
-	}
-
-	private static MyWellInfo readWellInfoFromSharedArray(RobotController rc, int index) throws GameActionException {
-		int well = rc.readSharedArray(index + WELL_START);
-
-		if (well == 0)
-			return null;
-
-		return new MyWellInfo(new MapLocation(well & 0b111111, (well >> 6) & 0b111111),
-				ResourceType.values()[(well >> 12) & 0b11]);
-	}
-
-	private static void writeIslandInfoToSharedArray(RobotController rc, int islandIndex, MapLocation loc, Team team)
-			throws GameActionException {
-		int island = rc.readSharedArray(islandIndex + ISLAND_START);
-		int d = loc.y << 6 | loc.x | (1 << 14);
-		if (team == Team.B)
-			d |= (1 << 12);
-		if (team == Team.NEUTRAL)
-			d |= (2 << 12);
-		// 0..6 7..12 13 14 15 for: x y team team control // index of island +
-		// ISLAND_START =
-		// index in shared array
-		// two bits for team: 00 = A, 01 = B, 10 = Neutral
-
-		if (d >> 12 == island >> 12)
-			return; // ignore location data
-		if (rc.canWriteSharedArray(islandIndex + ISLAND_START, d)) {
-			rc.writeSharedArray(islandIndex + ISLAND_START, d);
-		}
-	}
-
-	private static MyIslandInfo readIslandInfoFromSharedArray(RobotController rc, int islandIndex)
-			throws GameActionException {
-		int island = rc.readSharedArray(islandIndex + ISLAND_START);
-		if (island == 0)
-			return null;
-		return new MyIslandInfo(islandIndex, Team.values()[(island >> 12) & 0b11],
-				new MapLocation(island & 0b111111, (island >> 6) & 0b111111));
+	/**
+	 * Ends the turn. Every turn end goes through here so background tasks get the turn's spare bytecode even while
+	 * the robot is inside a movement loop.
+	 */
+	static void endTurn(RobotController rc) {
+		Scheduler.runIdle(rc); // spend what is left of the turn on background tasks
+		if (Profiler.ENABLED)
+			Profiler.endTurn();
+		Clock.yield();
+		if (Profiler.ENABLED)
+			Profiler.beginTurn(rc);
 	}
 
-	private static void writeMapSymmetryToSharedArray(RobotController rc, Symmetry symmetry) throws GameActionException {
-		int sym = rc.readSharedArray(SYMMETRY_INDEX);
-		if (sym == symmetry.ordinal())
-			return;
-		// 00 = Rotation, 01 = Hor, 10 = Vert, 11 = Unknown
-		if (rc.canWriteSharedArray(SYMMETRY_INDEX, symmetry.ordinal())) {
-			rc.writeSharedArray(SYMMETRY_INDEX, symmetry.ordinal());
-		}
-	}
 
-	private static Symmetry readMapSymmetryFromSharedArray(RobotController rc) throws GameActionException {
-		int sym = rc.readSharedArray(SYMMETRY_INDEX);
-		return Symmetry.values()[sym];
+	private static MapLocation getSymmetricLocation(RobotController rc, MapLocation loc) throws GameActionException {
+		return mirror(rc, loc, SymmetrySolver.guess()); // random among the symmetries not ruled out yet
 	}
 
-	static MapLocation[] hqs = new MapLocation[HQ_END - HQ_START + 1];
-	static MapLocation[] enemyHqs = new MapLocation[ENEMY_HQ_END - ENEMY_HQ_START + 1];
-	static MyWellInfo[] wells = new MyWellInfo[WELL_END - WELL_START + 1];
-	static MyIslandInfo[] islands = new MyIslandInfo[ISLAND_END - ISLAND_START + 1];
-	static RobotInfo[] nearbyRobots = new RobotInfo[0];
-	static Symmetry mapSymmetry = Symmetry.UNKNOWN;
-
-	private static MapLocation getSymmetricLocation(RobotController rc, MapLocation loc) throws GameActionException {
+	static MapLocation mirror(RobotController rc, MapLocation loc, Symmetry sym) {
 		int oppX = rc.getMapWidth() - 1 - loc.x;
 		int oppY = rc.getMapHeight() - 1 - loc.y;
 
-		Symmetry sym = mapSymmetry;
-		if (sym == Symmetry.UNKNOWN)
-			sym = Symmetry.values()[rng.nextInt(3)]; // random but known symmetry
-
 		if (sym == Symmetry.VERTICAL) {
 			return new MapLocation(oppX, loc.y);
 		} else if (sym == Symmetry.HORIZONTAL) {
@@ -206,13 +63,36 @@ public strictfp class RobotPlayer {
 		}
 	}
 
+	/**
+	 * @return true if the robot can move in direction mv and the current where it lands does not undo the step
+	 */
 	static boolean canMoveBetter(RobotController rc, Direction mv) throws GameActionException {
-		return rc.canMove(mv) && (
-					 rc.senseMapInfo(rc.getLocation().add(mv)).getCurrentDirection() != mv.opposite() ||
-					 rc.getType() == RobotType.CARRIER);
+		MapLocation loc = rc.getLocation();
+		return rc.canMove(mv) && MoveCost.advances(MapMemory.index(loc.x, loc.y), mv);
+	}
+
+	static final int PATH_BYTECODES = 5000; // most one call of the path search may use, the rest runs in spare bytecode
+	static final int HINT_STEPS = 4; // how far along a flow hint the path search aims
+
+	/**
+	 * @return what the path search should aim at: target if its tile is remembered, otherwise a point HINT_STEPS
+	 *         along the HQ's flow field when the field leads to target, otherwise target
+	 */
+	static MapLocation pathGoal(RobotController rc, MapLocation target) {
+		if ((MapMemory.tiles[MapMemory.index(target.x, target.y)] & MapMemory.KNOWN) != 0)
+			return target;
+		MapLocation me = rc.getLocation();
+		Direction hint = FlowField.hint(me, target);
+		if (hint == null)
+			return target;
+		int x = Math.max(0, Math.min(rc.getMapWidth() - 1, me.x + hint.dx * HINT_STEPS));
+		int y = Math.max(0, Math.min(rc.getMapHeight() - 1, me.y + hint.dy * HINT_STEPS));
+		return new MapLocation(x, y);
 	}
 
 	static MoveStatus moveToLocation(RobotController rc, MapLocation target, int range) throws GameActionException {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.MOVE);
 		Direction to, move;
 		to = move = rc.getLocation().directionTo(target);
 		boolean rushStatusBefore = !(rc.getRobotCount() < RUSH_ROBOT_THRESHOLD && rc.getRoundNum() < RUSH_ROUND_THRESHOLD);
@@ -223,27 +103,49 @@ public strictfp class RobotPlayer {
 			if (rc.getType() == RobotType.LAUNCHER && !rushStatusBefore && rushStatusAfter) {
 				break;
 			}
-			if (rc.getType() == RobotType.LAUNCHER && rc.isActionReady()) {
-				attackRobot(rc, RobotType.LAUNCHER);
-				attackRobot(rc, null);
+			if (rc.getType() == RobotType.LAUNCHER && (rc.isActionReady() || rc.isMovementReady())) {
+				Micro.fight(rc);
 			}
 
 			yield(50, rc);
 			if (range > 0) {
 				if (rc.getLocation().distanceSquaredTo(target) <= (range+1)*(range+1)) {
+					if (Profiler.ENABLED)
+						Profiler.end(Profiler.MOVE);
 					return MoveStatus.ON;
 				} 
 			}
 			else {
 				if (rc.getLocation().equals(target)) {
+					if (Profiler.ENABLED)
+						Profiler.end(Profiler.MOVE);
 					return MoveStatus.ON;
 				} else if (rc.getLocation().isAdjacentTo(target) && rc.isLocationOccupied(target)) {
+					if (Profiler.ENABLED)
+						Profiler.end(Profiler.MOVE);
 					return MoveStatus.ADJACENT;
 				}
 			}
 
 			yield(200, rc);
-			if (canMoveBetter(rc, move) && (rc.getRoundNum() % 4 != 0 || rc.getType() != RobotType.LAUNCHER)) {
+			boolean canStep = rc.getRoundNum() % 4 != 0 || rc.getType() != RobotType.LAUNCHER;
+			if (Profiler.ENABLED)
+				Profiler.begin(Profiler.PATH);
+			Direction step = canStep && rc.isMovementReady() ? Pathfinder.bestStep(rc, pathGoal(rc, target),
+					Math.min(PATH_BYTECODES, Clock.getBytecodesLeft() - 1000)) : null;
+			if (Profiler.ENABLED)
+				Profiler.end(Profiler.PATH);
+			if (step != null) {
+				// path found through the known tiles (toward the flow field's lead if the target is unknown)
+				rc.move(step);
+				i++;
+				readAllInformation(rc);
+				updateSharedArrays(rc);
+				to = move = rc.getLocation().directionTo(target);
+			} else if (Pathfinder.isSearching()) {
+				endTurn(rc); // the search continues at the end of the turn and on the next call
+			} else if (canMoveBetter(rc, move) && canStep) {
+				// no path in vision -> fall back to hugging the wall
 				rc.move(move);
 				i++; // iterate only if it successfully moves
 				readAllInformation(rc);
@@ -258,233 +160,151 @@ public strictfp class RobotPlayer {
 			} else if (rc.isMovementReady()) { // movement was ready but could not move -> still blocked
 				move = move.rotateLeft();
 			} else {
-				Clock.yield(); // yield (cannot move)
+				endTurn(rc); // yield (cannot move)
 				// readAllInformation(rc);
 			}
 		}
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.MOVE);
 		return MoveStatus.FAILED;
 	}
+	/**
+	 * Non-blocking counterpart of moveToLocation: moves towards target only as far as this turn's movement
+	 * cooldown allows.
+	 *
+	 * @param radiusSquared how close counts as arrived
+	 *
+	 * @return ON if within radiusSquared of target, MOVING if it moved or is waiting on cooldown, FAILED if no
+	 *         step was possible
+	 */
+	static MoveStatus stepToLocation(RobotController rc, MapLocation target, int radiusSquared)
+			throws GameActionException {
+		while (true) {
+			MapLocation me = rc.getLocation();
+			if (me.isWithinDistanceSquared(target, radiusSquared))
+				return MoveStatus.ON;
+			if (!rc.isMovementReady())
+				return MoveStatus.MOVING;
+
+			if (Profiler.ENABLED)
+				Profiler.begin(Profiler.PATH);
+			Direction step = Pathfinder.bestStep(rc, pathGoal(rc, target),
+					Math.min(PATH_BYTECODES, Clock.getBytecodesLeft() - 1000));
+			if (Profiler.ENABLED)
+				Profiler.end(Profiler.PATH);
+			if (step == null && Pathfinder.isSearching())
+				return MoveStatus.MOVING; // the search continues next turn
+			if (step == null) {
+				// nothing known in that direction -> try the straight line and its neighbours
+				Direction to = me.directionTo(target);
+				if (canMoveBetter(rc, to))
+					step = to;
+				else if (canMoveBetter(rc, to.rotateLeft()))
+					step = to.rotateLeft();
+				else if (canMoveBetter(rc, to.rotateRight()))
+					step = to.rotateRight();
+				else
+					return MoveStatus.FAILED;
+			}
+			rc.move(step);
+			readAllInformation(rc);
+		}
+	}
+
 
 	static void updateSharedArrays(RobotController rc) throws GameActionException {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.UPDATE_SHARED);
 		yield(500, rc);
+		// discoveries are queued and written once the robot is in write range
 		for (WellInfo wi : rc.senseNearbyWells()) {
-			writeWellInfoToSharedArray(rc, wi);
+			if (rc.onTheMap(wi.getMapLocation()))
+				Outbox.well(rc, wi.getMapLocation(), wi.getResourceType());
 		}
 
 		yield(500, rc);
 		for (int islandIndex : rc.senseNearbyIslands()) {
 			MapLocation loc = rc.senseNearbyIslandLocations(islandIndex)[0];
-			writeIslandInfoToSharedArray(rc, islandIndex, loc, rc.senseTeamOccupyingIsland(islandIndex));
+			Outbox.island(rc, islandIndex, loc, rc.senseTeamOccupyingIsland(islandIndex));
 		}
 
 		yield(500, rc);
-		for (RobotInfo robot : nearbyRobots) {
-			if (robot.team == rc.getTeam().opponent() && robot.type == RobotType.HEADQUARTERS) {
-				// ENEMY Headquarters:
-				writeHQLocationToSharedArray(rc, robot.getLocation(), true);
-			}
+		int enemyHqs = Nearby.bucket(Nearby.ENEMY, RobotType.HEADQUARTERS);
+		for (int i = Nearby.count[enemyHqs]; --i >= 0;) {
+			// ENEMY Headquarters:
+			Outbox.enemyHq(rc, Nearby.robots[enemyHqs][i].getLocation());
 		}
+		Sightings.report(rc);
+		Outbox.flush(rc);
+
+		Exploration.visit(rc);
+		SymmetrySolver.publish(rc);
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.UPDATE_SHARED);
 	}
 
 	static void readAllInformation(RobotController rc) throws GameActionException {
-		if (turnCount == 1) {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.READ_ALL);
+		// only decode the slots that changed since the last read
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.SHARED_DECODE);
+		if (SharedSync.sync(rc)) {
 			// read locations of all our HQs
-			for (int i = 0; i <= HQ_END - HQ_START; i++) {
-				if (hqs[i] != null) {
-					continue;
-				}
-				hqs[i] = readHQLocationFromSharedArray(rc, i, false);
+			for (int i = 0; i < Comms.HQ_COUNT; i++) {
+				if (Comms.isDirty(Comms.HQ_OFFSET + i * Comms.HQ_BITS, Comms.HQ_BITS))
+					WorldModel.setHq(i, Comms.readHq(i, false), false);
 			}
-		}
 
-		yield(100, rc);
-		// read all Enemy Hqs
-		for (int i = 0; i <= ENEMY_HQ_END - ENEMY_HQ_START; i++) {
-			if (enemyHqs[i] != null) {
-				continue;
+			// read all Enemy Hqs
+			for (int i = 0; i < Comms.ENEMY_HQ_COUNT; i++) {
+				if (Comms.isDirty(Comms.ENEMY_HQ_OFFSET + i * Comms.HQ_BITS, Comms.HQ_BITS))
+					WorldModel.setHq(i, Comms.readHq(i, true), true);
 			}
-			enemyHqs[i] = readHQLocationFromSharedArray(rc, i, true);
-		}
-
-		yield(100, rc);
-		// read all wells
-		for (int i = 0; i <= WELL_END - WELL_START; i++) {
-			if (wells[i] != null)
-				continue;
-			wells[i] = readWellInfoFromSharedArray(rc, i);
-			if (wells[i] == null)
-				break;
-		}
 
-		yield(500, rc);
-		// read all islands
-		for (int i = 0; i <= ISLAND_END - ISLAND_START; i++) {
-			islands[i] = readIslandInfoFromSharedArray(rc, i);
-		}
-
-		// read symmetry info
-		yield(100, rc);
-		mapSymmetry = readMapSymmetryFromSharedArray(rc);
-
-		// sense nearby robots
-		nearbyRobots = rc.senseNearbyRobots();
-	}
-
-	private static MapLocation randomHq(boolean enemy) {
-		MapLocation[] iter = !enemy ? hqs : enemyHqs;
-		int i = 0; // random index
-		for (; i < iter.length; i++) {
-			if (iter[i] == null)
-				break;
-		}
-		if (i == 0)
-			return null;
-		return iter[rng.nextInt(i)];
-	}
-
-	static private MyWellInfo[] sortArrayByDistanceToLocation(MyWellInfo[] locs, MapLocation compare) {
-		MyWellInfo old;
-		MyWellInfo neww;
-		for (int i = 0; i<locs.length - 1; i++) {
-			for (int j = 0; j<locs.length - i - 1; j++) {
-				old = locs[j];
-				neww = locs[j+1];
-				if (old.loc.distanceSquaredTo(compare) > neww.loc.distanceSquaredTo(compare)) {
-					locs[j] = neww;
-					locs[j+1] = old;
+			// read all wells
+			for (int i = 0; i < Comms.WELL_COUNT; i++) {
+				if (Comms.isDirty(Comms.WELL_OFFSET + i * Comms.WELL_BITS, Comms.WELL_BITS)) {
+					WorldModel.setWell(i, Comms.readWell(i), Comms.readWellType(i));
+					if (WorldModel.wellLoc[i] != WorldModel.NONE)
+						WellIndex.add(i);
 				}
 			}
-		}
-		return locs;
-	}
-
-	private static MyWellInfo randomWeightedWell(ResourceType target, MapLocation loc) {
-		int wellCount = 0;
-		for (MyWellInfo wi : wells) {
-			if (wi != null && wi.resourceType == target) {
-				wellCount++;
-			}
-		}
-		if (wellCount == 0)
-			return null;
-		
-		MyWellInfo[] locations = new MyWellInfo[wellCount];
-		int i = 0;
-		for (MyWellInfo wi : wells) {
-			if (wi != null && wi.resourceType == target) {
-				locations[i] = wi;
-				i++;
-			}
-		}
-
-		locations = sortArrayByDistanceToLocation(locations, loc);
-
-		for (int j = 0; j<locations.length; j++) {
-			int r = rng.nextInt(3);
-			if (r < 2 || j == locations.length - 1) {
-				return locations[j];
-			}
-		}
-		return null;
-	}
 
-	private static MyWellInfo randomWell(ResourceType target) {
-		int wellCount = 0;
-		for (MyWellInfo wi : wells) {
-			if (wi != null && wi.resourceType == target) {
-				wellCount++;
-			}
-		}
-		if (wellCount == 0)
-			return null;
-
-		int index = rng.nextInt(wellCount);
-		wellCount = -1;
-		for (MyWellInfo wi : wells) {
-			if (wi != null && wi.resourceType == target && ++wellCount == index) {
-				return wi;
+			// read all islands
+			if (Comms.isDirty(Comms.ISLAND_OFFSET, Comms.ISLAND_COUNT * Comms.ISLAND_BITS)) {
+				int round = rc.getRoundNum();
+				for (int i = 0; i < Comms.ISLAND_COUNT; i++) {
+					if (Comms.isDirty(Comms.ISLAND_OFFSET + i * Comms.ISLAND_BITS, Comms.ISLAND_BITS))
+						WorldModel.setIsland(i, Comms.readIsland(i), Comms.readIslandTeam(i), round);
+				}
 			}
-		}
-		return null;
-	}
 
-	private static MyIslandInfo randomIsland(Team team) {
-		// count total islands
-		int islandCount = 0;
-		for (MyIslandInfo i : islands) {
-			if (i != null && i.team == team) {
-				islandCount++;
+			// read enemy sightings
+			for (int i = 0; i < Comms.SIGHTING_COUNT; i++) {
+				if (Comms.isDirty(Comms.SIGHTING_OFFSET + i * Comms.SIGHTING_BITS, Comms.SIGHTING_BITS))
+					WorldModel.setSighting(i, Comms.readSighting(i), Comms.readSightingSize(i), Comms.readSightingStamp(i));
 			}
-		}
-		if (islandCount == 0) {
-			return null;
-		}
 
-		// select random island
-		int index = rng.nextInt(islandCount);
-		islandCount = -1;
-		for (MyIslandInfo i : islands) {
-			if (i != null && i.team == team && ++islandCount == index) {
-				return i;
-			}
-		}
-		return null;
-	}
-
-	private static void hqFigureOutSymmetry(RobotController rc) throws GameActionException {
-		yield(2000, rc); // heavy processing (2000 should be more than enough)
-		int rC = 0; // rotation matches
-		int vC = 0; // vertical matches
-		int hC = 0; // horizontal matches
-
-		int width = rc.getMapWidth() - 1; // - 1 for the last index
-		int height = rc.getMapHeight() - 1;
+			// read explored sectors
+			if (Comms.isDirty(Comms.EXPLORED_OFFSET, Comms.EXPLORED_BITS))
+				Exploration.merge(Comms.readExplored());
 
-		// check hqs for matches
-		for (MapLocation hq : hqs) {
-			for (MapLocation eHq : enemyHqs) {
-				if (eHq == null || hq == null) {
-					continue;
-				}
-				if (hq.x + eHq.x == width && hq.y + eHq.y == height)
-					rC++;
-				if (hq.x == eHq.x && hq.y + eHq.y == height)
-					hC++;
-				if (hq.x + eHq.x == width && hq.y == eHq.y)
-					vC++;
-			}
+			// read symmetry info
+			if (Comms.isDirty(Comms.SYMMETRY_OFFSET, Comms.SYMMETRY_BITS))
+				SymmetrySolver.merge(Comms.readEliminatedSymmetries());
 		}
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.SHARED_DECODE);
 
-		// check wells for matches
-		for (MyWellInfo wi : wells) {
-			for (MyWellInfo wi2 : wells) {
-				if (wi == null || wi2 == null) {
-					continue;
-				}
-				if (wi.loc.x + wi2.loc.x == width && wi.loc.y + wi2.loc.y == height)
-					rC++;
-				if (wi.loc.x == wi2.loc.x && wi.loc.y + wi2.loc.y == height)
-					hC++;
-				if (wi.loc.x + wi2.loc.x == width && wi.loc.y == wi2.loc.y)
-					vC++;
-			}
-		}
+		// sense nearby robots
+		Nearby.scan(rc);
 
-		yield(200, rc);
-		// the most matches is our symmetry
-		if (rC > vC && rC > hC) {
-			writeMapSymmetryToSharedArray(rc, Symmetry.ROTATION);
-			// rc.setIndicatorString("ROT");
-		} else if (vC > hC && vC > rC) {
-			writeMapSymmetryToSharedArray(rc, Symmetry.VERTICAL);
-			// rc.setIndicatorString("VERT");
-		} else if (hC > vC && hC > rC) {
-			writeMapSymmetryToSharedArray(rc, Symmetry.HORIZONTAL);
-			// rc.setIndicatorString("HORIZ");
-		} else {
-			// should never happen
-			writeMapSymmetryToSharedArray(rc, Symmetry.UNKNOWN);
-		}
+		// remember newly visible terrain, check enemy HQs against the symmetries
+		MapMemory.update(rc);
+		SymmetrySolver.observeHqs(rc);
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.READ_ALL);
 	}
 
 	// Robot code
@@ -492,8 +312,19 @@ public strictfp class RobotPlayer {
 
 	@SuppressWarnings("unused")
 	public static void run(RobotController rc) throws GameActionException {
+		// symmetry evidence first: the flow field mirrors unknown tiles once the symmetry is known
+		Scheduler.add(new SymmetrySolver.ObserveTask(2));
+		if (rc.getType() == RobotType.HEADQUARTERS)
+			Scheduler.add(new FlowField.BuildTask(1));
+		else
+			Scheduler.add(new Pathfinder.SearchTask(3)); // a robot waiting on its path search cannot move
+
 		while (true) {
 			turnCount += 1;
+			if (Profiler.ENABLED) {
+				Profiler.beginTurn(rc);
+				Profiler.begin(Profiler.RUN);
+			}
 			try {
 				switch (rc.getType()) {
 					case HEADQUARTERS:
@@ -515,398 +346,304 @@ public strictfp class RobotPlayer {
 						runAmplifier(rc);
 						break;
 				}
+				if (Profiler.ENABLED)
+					Profiler.end(Profiler.RUN);
 			} catch (Exception e) {
 				e.printStackTrace();
 				System.out.println("ERROR!");
 			} finally {
-				Clock.yield();
+				endTurn(rc);
 				readAllInformation(rc);
 			}
 		}
 	}
 
-	// Based on direction and square distance, it gets the discrete
-	// Number of squares it should go to
-	static MapLocation addMultipleToLocation(RobotController rc, Direction d, int squareRep) {
-		MapLocation loc = rc.getLocation();
-		double div = 1;
-
-		// Just precalculated sqrt(2)
-		if (Math.abs(d.dx) + Math.abs(d.dy) > 1) div = 1.41421356237;
-
-		int dist = (int)(Math.sqrt(squareRep / div));
-		for (int i = 0; i<dist; i++)
-			loc = loc.add(d);
-		return loc;
-	}
-
-	static Direction launcherDirection;
 	static void runHeadquarters(RobotController rc) throws GameActionException {
 		if (turnCount == 1) { // First turn
-			writeHQLocationToSharedArray(rc, rc.getLocation(), false); // update array to hold HQ location
+			readAllInformation(rc); // sync the mirror before writing to it
+			Comms.writeHq(rc, rc.getLocation(), false); // update array to hold HQ location
 			updateSharedArrays(rc); // update nearby items -> well and islands
-			
-			// Figures out closest direction to the center
-			// This is the only direction launchers use so
-			// We should add more or make it default to the
-			// Regular direction.
-			launcherDirection = rc.getLocation().directionTo(new MapLocation(rc.getMapHeight() / 2, rc.getMapWidth() / 2));
+			SpawnPlanner.init(rc);
 		}
 		readAllInformation(rc);
 
-		// do processing (figure out symmetry)
-		hqFigureOutSymmetry(rc);
-
-		// create anchors
-		if (turnCount > 750 && rc.isActionReady()) {
-			// give carriers time to spawn and collect resources
-			int anchorCount = rc.getNumAnchors(Anchor.STANDARD); // number of anchors this HQ is carrying
-			int freeIslandCount = 0;
-			for (MyIslandInfo islandInfo : islands) {
-				if (islandInfo != null && islandInfo.team == Team.NEUTRAL) {
-					freeIslandCount++;
-				}
-			}
-			int hqCount = 0;
-			for (MapLocation l : hqs) {
-				if (l != null)
-					hqCount++;
-			}
+		// share symmetries ruled out by terrain and enemies at our door, forget old fights
+		SymmetrySolver.publish(rc);
+		Sightings.expire(rc);
+		Sightings.report(rc);
+		Outbox.flush(rc);
 
-			if (freeIslandCount - anchorCount * hqCount > 0) {
-				// assume each HQ produces the same amount of anchors
-				if (rc.canBuildAnchor(Anchor.STANDARD)) {
-					rc.buildAnchor(Anchor.STANDARD);
-				} else {
-					return; // yield turn to collect resources to build an anchor
-				}
-			}
-		}
+		// build what the production objective asks for
+		ProductionPlanner.observe(rc);
+		SpawnPlanner.update(rc);
+		Relays.place(rc);
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.SPAWN);
+		ProductionPlanner.build(rc);
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.SPAWN);
 
-		// Spawn carriers to scout for resources -> check all directions for
-		// availability
-		if (rc.isActionReady()) {
-			// First 7 rounds: Launcher, Launcher, Carrier, Signal Amplifier, Carrier,
-			// Carrier, Carrier
-			loop: for (Direction d : Direction.allDirections()) {
-				yield(400, rc);
-
-				// TEMPORARY
-				// TODO: Make it try to spawn towards the center.
-				launcherDirection = d;
-
-				switch (rc.getRoundNum()) {
-					case 1:
-						if (rc.canBuildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1))) {
-							rc.buildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1));
-						}
-						if (rc.canBuildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 4))) {
-							rc.buildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 4));
-						}
-						if (rc.canBuildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 9))) {
-							rc.buildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 9));
-						}
-						break;
-					case 2:
-					case 3:
-						// on small maps produce LAUNCHER instead of signal amplifier
-						// if (rc.getMapWidth() > 30 && rc.canBuildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9))) {
-						// 	rc.buildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9));
-						// 	break loop;
-						// } 
-						// else if (rc.canBuildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1))) {
-						// 	rc.buildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1));
-						// 	break loop;
-						// }
-						// System.out.println(addMultipleToLocation(rc, launcherDirection, 1));
-						// System.out.println(rc.canBuildRobot(RobotType.CARRIER, addMultipleToLocation(rc, launcherDirection, 1)));
-						break;
-					case 4:
-					case 5:
-					case 6:
-					case 30:
-						if (rc.canBuildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9))) {
-							rc.buildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9));
-							break loop;
-						}
-						break;
-					default:
-						int choose = rng.nextInt(60);
-						if (choose < 1 && rc.canBuildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9)) && rc.getRoundNum() > 250) {
-							rc.buildRobot(RobotType.AMPLIFIER, addMultipleToLocation(rc, d, 9));
-							break loop;
-						} 
-						else if (choose < 54 && rc.canBuildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1))) {
-							rc.buildRobot(RobotType.LAUNCHER, addMultipleToLocation(rc, launcherDirection, 1));
-							break loop;
-						} 
-						else if (choose < 60 && rc.canBuildRobot(RobotType.CARRIER, addMultipleToLocation(rc, d, 9))) {
-							rc.buildRobot(RobotType.CARRIER, addMultipleToLocation(rc, d, 9));
-							break loop;
-						}
-				}
-			}
-		}
+		// after building: the planner counts carriers by their claims before they are cleared
+		Dispatcher.publish(rc);
+		Relays.publish(rc);
 	}
 
 	static MapLocation startingHQ;
 
+	static final int CARRIER_CAPACITY = 40;
+	static final int CARRIER_STUCK_TURNS = 6; // turns without progress before a carrier gives up on its well
+	static final ResourceType[] DEPOSIT_ORDER = { ResourceType.MANA, ResourceType.ADAMANTIUM, ResourceType.ELIXIR };
+
+	static CarrierState carrierState = CarrierState.SEEK_WELL;
+	static CarrierState carrierResumeState = CarrierState.SEEK_WELL; // state to go back to after fleeing
+	static int carrierWell = WorldModel.NONE;
+	static MapLocation carrierWellLoc;
+	static int carrierIsland = WorldModel.NONE;
+	static MapLocation carrierHq;
+	static MapLocation carrierScout;
+	static int carrierScoutSector = -1;
+	static int carrierStuck = 0;
+
+	static int carrierLoad(RobotController rc) {
+		return rc.getResourceAmount(ResourceType.ADAMANTIUM) + rc.getResourceAmount(ResourceType.MANA)
+				+ rc.getResourceAmount(ResourceType.ELIXIR);
+	}
+
+	/*
+	 * Carriers run one state per turn and keep it across turns:
+	 * SEEK_WELL -> COLLECT -> RETURN -> DEPOSIT -> SEEK_WELL, or from DEPOSIT / FETCH_ANCHOR -> PLACE_ANCHOR
+	 * when a free island is known and an HQ has an anchor. Any state switches to FLEE while enemy launchers are
+	 * in sight and resumes once they are gone.
+	 */
 	static void runCarrier(RobotController rc) throws GameActionException {
 		readAllInformation(rc);
-
-		/*
-		 * 1. Island
-		 * - sense nearby anchors -> write all necessary information
-		 * - if carrying anchor -> go to nearby unoccupied island
-		 * (senseTeamOccupyingIsland)
-		 * 2. Resources
-		 * - sense nearby wells -> write all info
-		 * - if available space to collect -> go to nearby well
-		 * - if adjacent to well -> collect
-		 * - if full -> go back to HQ
-		 */
-
 		updateSharedArrays(rc);
+		Dispatcher.refresh(rc);
 
 		if (turnCount == 1) {
-			for (RobotInfo ri: rc.senseNearbyRobots()) {
-				if (ri.type == RobotType.HEADQUARTERS) startingHQ = ri.location;
+			RobotInfo hq = Nearby.closest(Nearby.ALLY, RobotType.HEADQUARTERS, rc.getLocation());
+			if (hq != null) {
+				startingHQ = hq.location;
+				WellIndex.setOrigin(startingHQ);
 			}
+			if (rc.getNumAnchors(Anchor.STANDARD) > 0)
+				carrierState = CarrierState.PLACE_ANCHOR;
 		}
 
-		// if nearby launcher and can attack -> attack
-		for (RobotInfo ri : nearbyRobots) {
-			if (ri.team == rc.getTeam().opponent()) {
-				yield(50, rc);
-				if (ri.type == RobotType.LAUNCHER && rc.canAttack(ri.location)) {
-					rc.attack(ri.location);
-				}
+		// closest enemy that can hurt us; if possible throw our resources at a launcher
+		MapLocation me = rc.getLocation();
+		RobotInfo threat = Nearby.closest(Nearby.ENEMY, RobotType.LAUNCHER, me);
+		RobotInfo destabilizer = Nearby.closest(Nearby.ENEMY, RobotType.DESTABILIZER, me);
+		if (threat == null || (destabilizer != null
+				&& me.distanceSquaredTo(destabilizer.location) < me.distanceSquaredTo(threat.location))) {
+			threat = destabilizer;
+		}
+		if (threat != null) {
+			if (threat.type == RobotType.LAUNCHER && carrierLoad(rc) > 0 && rc.canAttack(threat.location)) {
+				rc.attack(threat.location);
+			}
+			if (carrierState != CarrierState.FLEE) {
+				carrierResumeState = carrierState;
+				carrierState = CarrierState.FLEE;
 			}
+		} else if (carrierState == CarrierState.FLEE) {
+			carrierState = carrierResumeState; // threat gone -> resume this turn
 		}
 
-		// Handle Islands ================================
-
-		MyIslandInfo targetIsland = null;
-		for (MyIslandInfo island : islands) {
-			if (island != null && island.team == Team.NEUTRAL) {
-				if (targetIsland == null
-						|| island.loc.distanceSquaredTo(rc.getLocation()) < targetIsland.loc.distanceSquaredTo(rc.getLocation())) {
-					targetIsland = island;
-				}
-			}
+		rc.setIndicatorString(carrierState.toString());
+		switch (carrierState) {
+			case SEEK_WELL:
+				carrierSeekWell(rc);
+				break;
+			case COLLECT:
+				carrierCollect(rc);
+				break;
+			case RETURN:
+				carrierReturn(rc);
+				break;
+			case DEPOSIT:
+				carrierDeposit(rc);
+				break;
+			case FETCH_ANCHOR:
+				carrierFetchAnchor(rc);
+				break;
+			case PLACE_ANCHOR:
+				carrierPlaceAnchor(rc);
+				break;
+			case FLEE:
+				carrierFlee(rc, threat);
+				break;
 		}
+	}
 
-		if (targetIsland != null && rc.isActionReady()) {
-			// if nearby available island, then try to pick anchor from HQ
-			for (MapLocation hq : hqs) {
-				yield(200, rc);
-				if (hq != null && rc.getLocation().isAdjacentTo(hq) && rc.canTakeAnchor(hq, Anchor.STANDARD)) {
-					rc.takeAnchor(hq, Anchor.STANDARD);
-					break;
+	private static void carrierSeekWell(RobotController rc) throws GameActionException {
+		// an HQ in sight has an anchor and there is a free island -> carry it there first (needs empty hands)
+		if (carrierLoad(rc) == 0 && WorldModel.closestIsland(rc.getLocation(), Team.NEUTRAL) != WorldModel.NONE) {
+			int hqs = Nearby.bucket(Nearby.ALLY, RobotType.HEADQUARTERS);
+			for (int i = Nearby.count[hqs]; --i >= 0;) {
+				RobotInfo ri = Nearby.robots[hqs][i];
+				if (ri.getTotalAnchors() > 0) {
+					Dispatcher.release(rc);
+					carrierWell = WorldModel.NONE;
+					carrierHq = ri.location;
+					carrierState = CarrierState.FETCH_ANCHOR;
+					carrierFetchAnchor(rc);
+					return;
 				}
 			}
-			if (rc.getNumAnchors(Anchor.STANDARD) > 0) {
-				// if successfully picked up the anchor -> go to island
-				if (moveToLocation(rc, targetIsland.loc, 0) == MoveStatus.ON) {
-					yield(200, rc);
-					if (rc.isActionReady()) {
-						rc.setIndicatorString(targetIsland.index + ", " + islands[targetIsland.index].team);
-						if (islands[targetIsland.index].team == rc.getTeam()) {
-							// we already own it -> yield and decide what to do next turn
-							return;
-						} else if (rc.canPlaceAnchor()) {
-							rc.placeAnchor();
-							updateSharedArrays(rc);
-						}
-					}
-				}
-				// if not on island -> return and hopefully get on next turn
-				return;
-			}
 		}
 
-		// Handle Wells ================================
-
-		// If full, go to random HQ and deposit
-		if (rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ADAMANTIUM) == 40) {
-			// select a random valid hq
-			MapLocation hqLoc = randomHq(false);
-
-			if (moveToLocation(rc, hqLoc, 0) == MoveStatus.FAILED)
-				return;
-			// Deposit all MANA
-			while (rc.getResourceAmount(ResourceType.MANA) > 0) {
-				if (!rc.isActionReady()) {
-					Clock.yield(); // end turn -> continue depositing on next turn
-					readAllInformation(rc);
-					continue;
-				}
+		if (carrierWell == WorldModel.NONE) {
+			// 70% chance of attacking a mana well, the dispatcher moves us on if its wells are full
+			carrierWell = Dispatcher.claim(rc, rng.nextInt(10) < 7 ? ResourceType.MANA : ResourceType.ADAMANTIUM);
+			if (carrierWell != WorldModel.NONE)
+				carrierWellLoc = WorldModel.wellLocation(carrierWell);
+			carrierStuck = 0;
+		}
 
-				if (rc.canTransferResource(hqLoc, ResourceType.MANA, rc.getResourceAmount(ResourceType.MANA))) {
-					rc.transferResource(hqLoc, ResourceType.MANA, rc.getResourceAmount(ResourceType.MANA));
-				}
-			}
-			// Deposit all ADAMANTIUM
-			while (rc.getResourceAmount(ResourceType.ADAMANTIUM) > 0) {
-				if (!rc.isActionReady()) {
-					Clock.yield(); // end turn -> continue depositing on next turn
-					readAllInformation(rc);
-					continue;
-				}
-
-				if (rc.canTransferResource(hqLoc, ResourceType.ADAMANTIUM,
-						rc.getResourceAmount(ResourceType.ADAMANTIUM))) {
-					rc.transferResource(hqLoc, ResourceType.ADAMANTIUM, rc.getResourceAmount(ResourceType.ADAMANTIUM));
-				}
+		if (carrierWell == WorldModel.NONE) {
+			// no wells known yet -> scout the frontier, or a random position once everything was explored
+			if (carrierScout == null || rc.getLocation().isWithinDistanceSquared(carrierScout, 2)
+					|| (carrierScoutSector >= 0 && Exploration.isExplored(carrierScoutSector))) {
+				carrierScoutSector = Exploration.frontier(rc);
+				carrierScout = carrierScoutSector >= 0 ? Sectors.center(carrierScoutSector)
+						: new MapLocation(rng.nextInt(rc.getMapWidth()), rng.nextInt(rc.getMapHeight()));
 			}
+			stepToLocation(rc, carrierScout, 0);
 			return;
 		}
 
-		// otherwise, if not full, go to a random well
-		MyWellInfo manaWell = randomWeightedWell(ResourceType.MANA, startingHQ);
-		MyWellInfo adWell = randomWeightedWell(ResourceType.ADAMANTIUM, startingHQ);
-
-		MyWellInfo targetWell = adWell;
-		if (manaWell != null && rng.nextInt(10) < 7) {
-			targetWell = manaWell; // 70% chance of attacking a mana well
+		MoveStatus status = stepToLocation(rc, carrierWellLoc, 2);
+		if (status == MoveStatus.ON) {
+			carrierState = CarrierState.COLLECT;
+			carrierCollect(rc);
+		} else if (status == MoveStatus.FAILED && ++carrierStuck > CARRIER_STUCK_TURNS) {
+			Dispatcher.release(rc);
+			carrierWell = WorldModel.NONE; // crowded or unreachable -> pick again next turn
 		}
+	}
 
-		if (moveToLocation(rc, targetWell.loc, 0) == MoveStatus.FAILED) {
+	private static void carrierCollect(RobotController rc) throws GameActionException {
+		if (!rc.getLocation().isWithinDistanceSquared(carrierWellLoc, 2)) {
+			carrierState = CarrierState.SEEK_WELL; // pushed away
 			return;
 		}
-		while (rc.getResourceAmount(ResourceType.MANA) + rc.getResourceAmount(ResourceType.ADAMANTIUM) < 40) {
-			if (rc.isActionReady()) {
-				if (rc.canCollectResource(targetWell.loc, -1)) {
-					rc.collectResource(targetWell.loc, -1);
-				}
-			} else {
-				Clock.yield();
-				readAllInformation(rc);
-			}
+		if (rc.canCollectResource(carrierWellLoc, -1)) {
+			rc.collectResource(carrierWellLoc, -1);
+		}
+		if (carrierLoad(rc) >= CARRIER_CAPACITY) {
+			carrierState = CarrierState.RETURN;
+			carrierHq = WorldModel.closestHq(rc.getLocation());
 		}
 	}
 
-	private static boolean launcherIsStationed = false;
-
-	/**
-	 * 
-	 * @param locOne the first location
-	 * @param locTwo the second location\n
-	 * 
-	 * @return Gets the direction from locOne to locTwo
-	 */
-	static double directionTo(MapLocation locOne, MapLocation locTwo) {
-		return Math.atan2(locTwo.x - locOne.x, locTwo.y - locOne.y);
+	private static void carrierReturn(RobotController rc) throws GameActionException {
+		if (carrierHq == null)
+			carrierHq = WorldModel.closestHq(rc.getLocation());
+		if (stepToLocation(rc, carrierHq, 2) == MoveStatus.ON) {
+			carrierState = CarrierState.DEPOSIT;
+			carrierDeposit(rc);
+		}
 	}
 
-	static void launcherAttackMode(RobotController rc) throws GameActionException {
-		/*
-		 * Figure out what general direction the enemy is at locally
-		 * If we have lower health than a launcher behind us, move in the
-		 * opposite direction of the enemy.
-		 * If we have more health than a launcher in front of us
-		 * move in the direction of the enemy.
-		 * 
-		 * I'll work on this later, but I think it works like it's supposed to. It finds
-		 * The lowest health or highest health ally launcher depending on the direction
-		 * of the nearest enemy.
-		 */
-		
-		// Figuring general direction of enemy based on local info
-		int count = 0, launcherX = 0, launcherY = 0, arrayPoint = 0;
-		boolean teamLauncherNearby = false;
-		RobotInfo[] teamLaunchers = new RobotInfo[80];  // This is like 80 bytecode I think
-		for (RobotInfo r: nearbyRobots) {
-			if (r.type == RobotType.LAUNCHER && r.team != rc.getTeam()) {
-				launcherX += r.location.x;
-				launcherY += r.location.y;
-				count++;
+	private static void carrierDeposit(RobotController rc) throws GameActionException {
+		if (!rc.getLocation().isWithinDistanceSquared(carrierHq, 2)) {
+			carrierState = CarrierState.RETURN;
+			return;
+		}
+		// Deposit all MANA, then all ADAMANTIUM
+		for (ResourceType type : DEPOSIT_ORDER) {
+			int amount = rc.getResourceAmount(type);
+			if (amount > 0 && rc.canTransferResource(carrierHq, type, amount)) {
+				rc.transferResource(carrierHq, type, amount);
 			}
-			else if (r.type == RobotType.LAUNCHER && r.team == rc.getTeam()) {
-				teamLaunchers[arrayPoint] = r;
-
-				arrayPoint++;
-				teamLauncherNearby = true;
+		}
+		if (carrierLoad(rc) == 0) {
+			RobotInfo hq = rc.senseRobotAtLocation(carrierHq);
+			boolean anchor = hq != null && hq.getTotalAnchors() > 0;
+			if (anchor || (carrierWell != WorldModel.NONE && Dispatcher.crowded(carrierWell))) {
+				// keep the well for the next trip unless we are needed elsewhere
+				Dispatcher.release(rc);
+				carrierWell = WorldModel.NONE;
+			}
+			if (anchor) {
+				carrierState = CarrierState.FETCH_ANCHOR;
+				carrierFetchAnchor(rc);
+			} else {
+				carrierState = CarrierState.SEEK_WELL;
 			}
 		}
-		if (!teamLauncherNearby) {
+	}
+
+	private static void carrierFetchAnchor(RobotController rc) throws GameActionException {
+		carrierIsland = WorldModel.closestIsland(rc.getLocation(), Team.NEUTRAL);
+		if (carrierIsland == WorldModel.NONE || carrierHq == null) {
+			carrierState = CarrierState.SEEK_WELL;
 			return;
 		}
-		if (count == 0) {
+		if (stepToLocation(rc, carrierHq, 2) != MoveStatus.ON)
 			return;
+		if (rc.canTakeAnchor(carrierHq, Anchor.STANDARD)) {
+			rc.takeAnchor(carrierHq, Anchor.STANDARD);
+			carrierState = CarrierState.PLACE_ANCHOR;
+		} else if (rc.isActionReady()) {
+			carrierState = CarrierState.SEEK_WELL; // no anchor to take
 		}
+	}
 
-
-		MapLocation avgLocation = new MapLocation(launcherX / count, launcherY / count);
-		double enemyDirection = directionTo(rc.getLocation(), avgLocation);
-		double oppEnemyDirection = (Math.PI + enemyDirection) % (Math.PI * 2);
-		
-		int bestHealth = -1, worstHealth = 9999;
-		RobotInfo best = null, worst = null;
-		for (int i = 0; i<arrayPoint; i++) {
-			RobotInfo launch = teamLaunchers[i];
-			if (Math.abs(oppEnemyDirection - directionTo(rc.getLocation(), launch.location)) < Math.PI/4) {
-				System.out.println("YAY");
-				if (launch.health > bestHealth) {
-					bestHealth = launch.health;
-					best = launch;
-				}
-			}
-			else if (Math.abs(enemyDirection - directionTo(rc.getLocation(), launch.location)) < Math.PI/4) {
-				if (launch.health < worstHealth) {
-					worstHealth = launch.health;
-					worst = launch;
-				}
-			}
+	private static void carrierPlaceAnchor(RobotController rc) throws GameActionException {
+		if (rc.getNumAnchors(Anchor.STANDARD) == 0) {
+			carrierState = CarrierState.SEEK_WELL;
+			return;
 		}
-		if (worst != null) {
-			System.out.println(worst.toString());
-			System.out.println(rc.getRoundNum());
-			rc.setIndicatorString("Worst Robot behind: " + worst);
+		if (rc.canPlaceAnchor()) {
+			rc.placeAnchor();
+			updateSharedArrays(rc);
+			carrierState = CarrierState.SEEK_WELL;
+			return;
 		}
-	}
 
-	static void attackRobot(RobotController rc, RobotType type) throws GameActionException {
-		RobotInfo attack = null;
-		int lowestHealth = 999999;
-		for (RobotInfo r : nearbyRobots) {
-			if (!rc.isActionReady()) {
-				break;
-			}
-			if (r.team == rc.getTeam().opponent() && r.getType() != RobotType.HEADQUARTERS
-					&& rc.canAttack(r.getLocation())) {
-				if (r.getType() == type || type == null) {
-					if (r.getHealth() < lowestHealth) {
-						lowestHealth = r.getHealth();
-						attack = r;
-					}
-				}
-			}
+		if (carrierIsland == WorldModel.NONE || WorldModel.islandTeam[carrierIsland] != Team.NEUTRAL.ordinal()) {
+			// taken in the meantime -> go to another free island
+			carrierIsland = WorldModel.closestIsland(rc.getLocation(), Team.NEUTRAL);
+			if (carrierIsland == WorldModel.NONE)
+				return;
 		}
-		if (attack != null) {
-			rc.attack(attack.getLocation());
-
-			if (attack.type != RobotType.LAUNCHER) return;
-			Direction dir = rc.getLocation().directionTo(attack.location).opposite();
-			if (rc.canMove(dir)) {
-				rc.move(dir);
-			}
-			else if (rc.canMove(dir.rotateLeft())) {
-				rc.move(dir.rotateLeft());
-			}
-			else if (rc.canMove(dir.rotateRight())) {
-				rc.move(dir.rotateRight());
+		stepToLocation(rc, WorldModel.islandLocation(carrierIsland), 0);
+		if (rc.canPlaceAnchor()) {
+			rc.placeAnchor();
+			updateSharedArrays(rc);
+			carrierState = CarrierState.SEEK_WELL;
+		}
+	}
+
+	private static void carrierFlee(RobotController rc, RobotInfo threat) throws GameActionException {
+		// away from the centroid of everything that can hurt us, or from the closest if we stand on the centroid
+		MapLocation me = rc.getLocation();
+		int l = Nearby.bucket(Nearby.ENEMY, RobotType.LAUNCHER);
+		int ds = Nearby.bucket(Nearby.ENEMY, RobotType.DESTABILIZER);
+		int n = Nearby.count[l] + Nearby.count[ds];
+		Direction away = Geometry.DIRECTIONS[Geometry.octant(n * me.x - Nearby.sumX[l] - Nearby.sumX[ds],
+				n * me.y - Nearby.sumY[l] - Nearby.sumY[ds])];
+		if (away == Direction.CENTER)
+			away = threat.location.directionTo(me);
+		Direction[] tries = { away, away.rotateLeft(), away.rotateRight() };
+		for (Direction d : tries) {
+			if (rc.isMovementReady() && canMoveBetter(rc, d)) {
+				rc.move(d);
+				readAllInformation(rc);
 			}
 		}
 	}
 
+	private static boolean launcherIsStationed = false;
+
 	private static int RUSH_ROBOT_THRESHOLD = 50;
 	private static int RUSH_ROUND_THRESHOLD = 750;
 
 	static void runLauncher(RobotController rc) throws GameActionException {
 		readAllInformation(rc);
 		updateSharedArrays(rc);
-		//launcherAttackMode(rc);
 
 		if (turnCount == 1) {
 			int width = rc.getMapWidth();
@@ -915,6 +652,16 @@ public strictfp class RobotPlayer {
 			RUSH_ROUND_THRESHOLD = RUSH_ROBOT_THRESHOLD * 5; // arbitrary
 		}
 
+		// join a fight our robots reported, unless holding an island or an HQ
+		if (!launcherIsStationed) {
+			int fight = Sightings.pick(rc);
+			if (fight != WorldModel.NONE) {
+				rc.setIndicatorString("FIGHT");
+				moveToLocation(rc, WorldModel.sightingLocation(fight), 2);
+				return;
+			}
+		}
+
 		// Rounds to wait before rushing:
 		if (rc.getRobotCount() < RUSH_ROBOT_THRESHOLD && rc.getRoundNum() < RUSH_ROUND_THRESHOLD) {
 			// rush only after 50 total robots -> ~30ish launchers
@@ -926,17 +673,19 @@ public strictfp class RobotPlayer {
 		if (launcherIsStationed) {
 			// sense for enemy robots or enemy anchors here
 			rc.setIndicatorString("STATIONED");
-			for (MyIslandInfo island : islands) {
+			int enemy = rc.getTeam().opponent().ordinal();
+			for (int i = 0; i < Comms.ISLAND_COUNT; i++) {
 				if (!rc.isActionReady()) {
 					break;
 				}
-				if (island != null && island.team == rc.getTeam().opponent() && rc.canAttack(island.loc)) {
-					rc.attack(island.loc);
+				if (WorldModel.islandLoc[i] != WorldModel.NONE && WorldModel.islandTeam[i] == enemy) {
+					MapLocation loc = WorldModel.islandLocation(i);
+					if (rc.canAttack(loc))
+						rc.attack(loc);
 				}
 			}
 
-			attackRobot(rc, RobotType.LAUNCHER);
-			attackRobot(rc, null);
+			Micro.fight(rc);
 			return;
 		}
 
@@ -945,36 +694,28 @@ public strictfp class RobotPlayer {
 		// 30% -> attack enemy islands
 		// 40% -> swarm enemy hq
 
-		MyIslandInfo island = randomIsland(rc.getTeam());
-		MyIslandInfo eIsland = randomIsland(rc.getTeam().opponent());
-		MapLocation eHq = randomHq(true);
-		MapLocation eHqGuess = getSymmetricLocation(rc, randomHq(false));
+		int island = WorldModel.randomIsland(rc.getTeam());
+		int eIsland = WorldModel.randomIsland(rc.getTeam().opponent());
+		// the enemy HQ (or its guess) the flow field leads to, so the field steers the swarm
+		MapLocation front = Comms.readFlowTarget();
+		MapLocation eHq = front != null && WorldModel.isEnemyHq(front) ? front : WorldModel.randomHq(true);
+		MapLocation eHqGuess = front != null ? front : getSymmetricLocation(rc, WorldModel.randomHq(false));
 
-		if (goal < 30 && island != null) {
+		if (goal < 30 && island != WorldModel.NONE) {
 			rc.setIndicatorString("ISLAND");
-			if (moveToLocation(rc, island.loc, 0) != MoveStatus.FAILED) {
+			if (moveToLocation(rc, WorldModel.islandLocation(island), 0) != MoveStatus.FAILED) {
 				// scan nearby robots (if many -> then go elsewhere)
-				int friendlyLaunchers = 0;
-				for (RobotInfo ri : nearbyRobots) {
-					if (ri.team == rc.getTeam() && ri.type == RobotType.LAUNCHER) {
-						friendlyLaunchers++;
-					}
-				}
+				int friendlyLaunchers = Nearby.count(Nearby.ALLY, RobotType.LAUNCHER);
 				if (friendlyLaunchers < 3) {
 					// if less than 3 other robots are present -> stay
 					launcherIsStationed = true;
 				}
 			}
-		} else if (goal < 60 && eIsland != null) {
+		} else if (goal < 60 && eIsland != WorldModel.NONE) {
 			// attack enemy islands
 			rc.setIndicatorString("ENEMY ISLAND");
-			if (moveToLocation(rc, eIsland.loc, 0) != MoveStatus.FAILED) {
-				int friendlyLaunchers = 0;
-				for (RobotInfo ri : nearbyRobots) {
-					if (ri.team == rc.getTeam() && ri.type == RobotType.LAUNCHER) {
-						friendlyLaunchers++;
-					}
-				}
+			if (moveToLocation(rc, WorldModel.islandLocation(eIsland), 0) != MoveStatus.FAILED) {
+				int friendlyLaunchers = Nearby.count(Nearby.ALLY, RobotType.LAUNCHER);
 				if (friendlyLaunchers < 4) {
 					// if less than 4 other robots are present -> stay
 					launcherIsStationed = true;
@@ -1003,30 +744,64 @@ public strictfp class RobotPlayer {
 		}
 	}
 
+	static final int AMPLIFIER_RETREAT_MARGIN = 4; // extra range squared at which relays back off from launchers
+
 	static void runAmplifier(RobotController rc) throws GameActionException {
 		readAllInformation(rc);
 		updateSharedArrays(rc);
 
-		// go to symmetry by island, symmetry by well or symmetry by HQs, or random
+		// hold a relay position, backing off a step while enemy launchers are in range
+		Relays.place(rc);
+		MapLocation relay = Relays.claim(rc);
+		if (relay != null) {
+			rc.setIndicatorString("RELAY " + relay);
+			RobotInfo threat = Nearby.closest(Nearby.ENEMY, RobotType.LAUNCHER, rc.getLocation());
+			if (threat != null && rc.getLocation().isWithinDistanceSquared(threat.location,
+					RobotType.LAUNCHER.actionRadiusSquared + AMPLIFIER_RETREAT_MARGIN)) {
+				Direction away = threat.location.directionTo(rc.getLocation());
+				Direction[] tries = { away, away.rotateLeft(), away.rotateRight() };
+				for (Direction d : tries) {
+					if (rc.isMovementReady() && canMoveBetter(rc, d)) {
+						rc.move(d);
+						readAllInformation(rc);
+					}
+				}
+			} else {
+				stepToLocation(rc, relay, Relays.HOLD_R2);
+			}
+			return;
+		}
+
+		// no relay free -> scout the unexplored sectors first
+		int sector = Exploration.frontier(rc);
+		if (sector >= 0) {
+			rc.setIndicatorString("SCOUT " + sector);
+			moveToLocation(rc, Sectors.center(sector), 2);
+			return;
+		}
+
+		// everything explored -> go to symmetry by island, symmetry by well or symmetry by HQs, or random
 		// position
 		int rand = rng.nextInt(4);
 		switch (rand) {
 			case 0:
-				moveToLocation(rc, getSymmetricLocation(rc, randomHq(false)), 0);
+				moveToLocation(rc, getSymmetricLocation(rc, WorldModel.randomHq(false)), 0);
 				break;
 			case 1:
-				final MyWellInfo ad = randomWell(ResourceType.ADAMANTIUM);
-				final MyWellInfo mn = randomWell(ResourceType.MANA);
-				MyWellInfo random = rng.nextInt(2) < 1 ? ad : mn;
-				if (random == null) {
+				final int ad = WellIndex.random(ResourceType.ADAMANTIUM);
+				final int mn = WellIndex.random(ResourceType.MANA);
+				int random = rng.nextInt(2) < 1 ? ad : mn;
+				if (random == WorldModel.NONE) {
 					random = ad;
 				}
-				moveToLocation(rc, getSymmetricLocation(rc, random.loc), 0);
-				break;
+				if (random != WorldModel.NONE) {
+					moveToLocation(rc, getSymmetricLocation(rc, WorldModel.wellLocation(random)), 0);
+					break;
+				} // otherwise try an island
 			case 2:
-				MyIslandInfo i = randomIsland(rc.getTeam());
-				if (i != null) {
-					moveToLocation(rc, getSymmetricLocation(rc, i.loc), 0);
+				int i = WorldModel.randomIsland(rc.getTeam());
+				if (i != WorldModel.NONE) {
+					moveToLocation(rc, getSymmetricLocation(rc, WorldModel.islandLocation(i)), 0);
 					break;
 				} // otherwise go to default case
 			default:
@@ -0,0 +1,51 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Runs tasks in the bytecode left over at the end of a turn, highest priority first. Nothing here ever ends a
+ * turn: whatever does not fit continues next round from the task's checkpoint. Every robot runs its own scheduler,
+ * so priorities only order the tasks of one robot.
+ */
+final class Scheduler {
+
+	static final int RESERVE = 300; // bytecodes kept back for ending the turn
+
+	private static final Task[] tasks = new Task[8];
+	private static int count = 0;
+
+	/**
+	 * Adds a task, keeping the list ordered by priority (ties run in the order they were added).
+	 */
+	static void add(Task task) {
+		if (count == tasks.length)
+			return;
+		int i = count++;
+		for (; i > 0 && tasks[i - 1].priority < task.priority; i--)
+			tasks[i] = tasks[i - 1];
+		tasks[i] = task;
+	}
+
+	/**
+	 * Runs tasks until the turn's spare bytecode is used up.
+	 */
+	static void runIdle(RobotController rc) {
+		for (int i = 0; i < count && Clock.getBytecodesLeft() > RESERVE;) {
+			boolean done;
+			try {
+				done = tasks[i].step(rc, RESERVE);
+			} catch (Exception e) {
+				e.printStackTrace();
+				done = true; // drop a failing task instead of failing every turn
+			}
+			if (done) {
+				count--;
+				for (int j = i; j < count; j++)
+					tasks[j] = tasks[j + 1];
+				tasks[count] = null;
+			} else {
+				i++;
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * The coarse SIDE x SIDE grid the shared array describes the map in. Sectors are numbered row major from (0, 0);
+ * their size in tiles depends on the map.
+ */
+final class Sectors {
+
+	static final int SIDE = 6;
+	static final int COUNT = SIDE * SIDE;
+
+	static int width = 1, height = 1; // tiles per sector
+	private static int mapWidth, mapHeight;
+
+	static void init(int w, int h) {
+		mapWidth = w;
+		mapHeight = h;
+		width = (w + SIDE - 1) / SIDE;
+		height = (h + SIDE - 1) / SIDE;
+	}
+
+	static int of(MapLocation loc) {
+		return (loc.y / height) * SIDE + loc.x / width;
+	}
+
+	/**
+	 * @return false for the sectors of the last row or column that lie entirely off a small map
+	 */
+	static boolean onMap(int sector) {
+		return (sector % SIDE) * width < mapWidth && (sector / SIDE) * height < mapHeight;
+	}
+
+	/**
+	 * @return the sector's center, moved onto the map for the sectors that stick out of it
+	 */
+	static MapLocation center(int sector) {
+		return new MapLocation(Math.min(mapWidth - 1, (sector % SIDE) * width + width / 2),
+				Math.min(mapHeight - 1, (sector / SIDE) * height + height / 2));
+	}
+}
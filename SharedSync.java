@@ -0,0 +1,76 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Local mirror of the shared array.
+ *
+ * The last slot is reserved as a version counter that every write bumps, so a robot can tell with a single read
+ * whether anything changed since its last sync. When it did, only the slots that differ from the mirror are flagged
+ * dirty and the callers decode just those.
+ */
+final class SharedSync {
+
+	static final int VERSION_INDEX = GameConstants.SHARED_ARRAY_LENGTH - 1;
+
+	static final int[] mirror = new int[GameConstants.SHARED_ARRAY_LENGTH];
+
+	// bit i set -> slot i changed in the last sync
+	static long dirty = 0;
+
+	private static int version = -1;
+	private static long written = 0; // slots written by this robot since the last sync
+
+	/**
+	 * Reads the changed slots of the shared array into the mirror.
+	 *
+	 * @return true if any slot changed since the last sync
+	 */
+	static boolean sync(RobotController rc) throws GameActionException {
+		int v = rc.readSharedArray(VERSION_INDEX);
+		long d = written;
+		written = 0;
+		if (v != version) {
+			if (version == -1)
+				d = -1L >>> (64 - VERSION_INDEX); // first sync -> every slot counts as changed
+			version = v;
+			for (int i = VERSION_INDEX; --i >= 0;) {
+				int value = rc.readSharedArray(i);
+				if (value != mirror[i]) {
+					mirror[i] = value;
+					d |= 1L << i;
+				}
+			}
+		}
+		dirty = d;
+		return d != 0;
+	}
+
+	/**
+	 * @return true if any slot in [from, to] changed in the last sync
+	 */
+	static boolean isDirty(int from, int to) {
+		return (dirty & ((-1L >>> (63 - to)) & (-1L << from))) != 0;
+	}
+
+	/**
+	 * Writes a slot and bumps the version.
+	 *
+	 * @return false if the robot could not write to the shared array
+	 */
+	static boolean write(RobotController rc, int index, int value) throws GameActionException {
+		if (!rc.canWriteSharedArray(index, value))
+			return false;
+		rc.writeSharedArray(index, value);
+		mirror[index] = value;
+		written |= 1L << index;
+
+		// the mirror already holds our own write -> keep our version in step with the array
+		int old = rc.readSharedArray(VERSION_INDEX);
+		int v = (old + 1) & GameConstants.MAX_SHARED_ARRAY_VALUE;
+		rc.writeSharedArray(VERSION_INDEX, v);
+		if (version == old)
+			version = v;
+		return true;
+	}
+}
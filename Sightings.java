@@ -0,0 +1,158 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import java.util.Arrays;
+
+/**
+ * Recent sightings of enemy fighters, shared so launchers go where the fighting is.
+ *
+ * Every robot reports the centroid of the enemy launchers and destabilizers it sees along with a size bucket. A
+ * report within MERGE_R2 of a live record refreshes that record; otherwise it replaces an empty or the oldest record.
+ * Records count as live for TTL units of ROUND_UNIT rounds. The round is stored modulo 64 units, so the HQs clear
+ * expired records before the stamp can wrap around and make them look fresh again.
+ */
+final class Sightings {
+
+	static final int ROUND_UNIT = 8;
+	static final int TTL = 6; // units, 48 rounds
+	static final int MERGE_R2 = 36;
+	static final int MAX_CHASE_STEPS = 30; // launchers ignore fights further away
+	private static final int MASK = (1 << Comms.SIGHTING_ROUND_BITS) - 1;
+
+	// records this robot found empty on arrival, by stamp and location
+	private static final int[] dismissedLoc = new int[Comms.SIGHTING_COUNT];
+	private static final int[] dismissedStamp = new int[Comms.SIGHTING_COUNT];
+
+	static {
+		Arrays.fill(dismissedLoc, WorldModel.NONE);
+	}
+
+	static int stamp(int round) {
+		return round / ROUND_UNIT & MASK;
+	}
+
+	private static int age(int index, int round) {
+		return (stamp(round) - WorldModel.sightingStamp[index]) & MASK;
+	}
+
+	private static boolean live(int index, int round) {
+		return WorldModel.sightingLoc[index] != WorldModel.NONE && age(index, round) < TTL;
+	}
+
+	private static int sizeBucket(int fighters) {
+		return fighters >= 7 ? 3 : fighters >= 4 ? 2 : fighters >= 2 ? 1 : 0;
+	}
+
+	// HQ side =======================================================
+
+	/**
+	 * Clears the records that are no longer live.
+	 */
+	static void expire(RobotController rc) throws GameActionException {
+		int round = rc.getRoundNum();
+		for (int i = Comms.SIGHTING_COUNT; --i >= 0;) {
+			if (WorldModel.sightingLoc[i] != WorldModel.NONE && !live(i, round))
+				Comms.clearSighting(rc, i);
+		}
+	}
+
+	// reporting =====================================================
+
+	/**
+	 * Queues the enemy fighters in sight, unless a live record already covers them.
+	 */
+	static void report(RobotController rc) {
+		int l = Nearby.bucket(Nearby.ENEMY, RobotType.LAUNCHER);
+		int ds = Nearby.bucket(Nearby.ENEMY, RobotType.DESTABILIZER);
+		int n = Nearby.count[l] + Nearby.count[ds];
+		if (n == 0)
+			return;
+		MapLocation c = new MapLocation((Nearby.sumX[l] + Nearby.sumX[ds]) / n, (Nearby.sumY[l] + Nearby.sumY[ds]) / n);
+		int size = sizeBucket(n);
+		int round = rc.getRoundNum();
+		int i = slot(c, round);
+		if (live(i, round) && WorldModel.sightingStamp[i] == stamp(round) && WorldModel.sightingSize[i] >= size)
+			return;
+		Outbox.sighting(rc, c, size);
+	}
+
+	/**
+	 * @return the record for a fight at loc: a live one within MERGE_R2, else an empty or the oldest one
+	 */
+	private static int slot(MapLocation loc, int round) {
+		int oldest = 0, oldestAge = -1;
+		for (int i = Comms.SIGHTING_COUNT; --i >= 0;) {
+			int p = WorldModel.sightingLoc[i];
+			int age = p == WorldModel.NONE ? MASK + 1 : age(i, round);
+			if (age < TTL) {
+				int dx = (p & 0b111111) - loc.x;
+				int dy = (p >> 6) - loc.y;
+				if (dx * dx + dy * dy <= MERGE_R2)
+					return i;
+			}
+			if (age > oldestAge) {
+				oldestAge = age;
+				oldest = i;
+			}
+		}
+		return oldest;
+	}
+
+	/**
+	 * Writes a sighting made in the given round.
+	 *
+	 * @return false if the robot could not write to the shared array
+	 */
+	static boolean write(RobotController rc, MapLocation loc, int size, int round) throws GameActionException {
+		int now = rc.getRoundNum();
+		if (now - round >= TTL * ROUND_UNIT)
+			return true; // too old to matter
+		int i = slot(loc, now);
+		if (live(i, now) && WorldModel.sightingStamp[i] == stamp(round))
+			size = Math.max(size, WorldModel.sightingSize[i]); // the same fight seen by another robot
+		return Comms.writeSighting(rc, i, loc, size, stamp(round));
+	}
+
+	// launcher side =================================================
+
+	/**
+	 * Picks the fight most worth joining: big and recent, discounted by distance. Records this robot reached without
+	 * finding enemies there are skipped.
+	 *
+	 * @return the record's index, or WorldModel.NONE
+	 */
+	static int pick(RobotController rc) {
+		MapLocation me = rc.getLocation();
+		int round = rc.getRoundNum();
+		int vision = rc.getType().visionRadiusSquared;
+		boolean quiet = Nearby.count(Nearby.ENEMY, RobotType.LAUNCHER)
+				+ Nearby.count(Nearby.ENEMY, RobotType.DESTABILIZER) == 0;
+		int best = WorldModel.NONE, bestValue = 0;
+		for (int i = Comms.SIGHTING_COUNT; --i >= 0;) {
+			if (!live(i, round))
+				continue;
+			int p = WorldModel.sightingLoc[i];
+			int stamp = WorldModel.sightingStamp[i];
+			if (dismissedLoc[i] == p && dismissedStamp[i] == stamp)
+				continue;
+			int dx = Math.abs((p & 0b111111) - me.x);
+			int dy = Math.abs((p >> 6) - me.y);
+			if (quiet && dx * dx + dy * dy <= vision) {
+				// nobody left there
+				dismissedLoc[i] = p;
+				dismissedStamp[i] = stamp;
+				continue;
+			}
+			int steps = Math.max(dx, dy);
+			if (steps > MAX_CHASE_STEPS)
+				continue;
+			int value = (WorldModel.sightingSize[i] + 1) * (TTL - age(i, round)) * 64 / (steps + 8);
+			if (value > bestValue) {
+				bestValue = value;
+				best = i;
+			}
+		}
+		return best;
+	}
+}
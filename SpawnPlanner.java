@@ -0,0 +1,116 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * The HQ's spawn tiles, ranked once per target instead of searched every turn.
+ *
+ * On the first turn every passable tile without a well in the HQ's action radius is collected. Launchers and
+ * amplifiers rank them by distance to the nearest known enemy HQ (the map center until one is known), carriers by
+ * distance to the well nearest to the HQ. The ranking is only redone when one of those targets changes, so a spawn
+ * is a walk down a short list until a tile is free.
+ */
+final class SpawnPlanner {
+
+	private static int[] tiles; // MapMemory indices
+	private static int tileCount = 0;
+
+	private static final int[] combatRank = new int[32];
+	private static final int[] carrierRank = new int[32];
+	private static final int[] dist = new int[32];
+
+	private static MapLocation hq;
+	private static int knownEnemyHqs = -1, knownWells = -1;
+
+	static void init(RobotController rc) {
+		hq = rc.getLocation();
+		int[] xs = Geometry.offsetsX(rc.getType().actionRadiusSquared);
+		int[] ys = Geometry.offsetsY(rc.getType().actionRadiusSquared);
+		int w = rc.getMapWidth(), h = rc.getMapHeight();
+		tiles = new int[xs.length];
+		for (int k = 1; k < xs.length; k++) { // offset 0 is the HQ itself
+			int x = hq.x + xs[k], y = hq.y + ys[k];
+			if (x < 0 || y < 0 || x >= w || y >= h)
+				continue;
+			int i = MapMemory.index(x, y);
+			if (MapMemory.isPassable(i) && MapMemory.wellAt(i) < 0)
+				tiles[tileCount++] = i;
+		}
+		update(rc);
+	}
+
+	/**
+	 * Re-ranks the tiles if an enemy HQ or a well was learned since the last call.
+	 */
+	static void update(RobotController rc) {
+		if (knownEnemyHqs != WorldModel.enemyHqCount) {
+			knownEnemyHqs = WorldModel.enemyHqCount;
+			MapLocation target = WorldModel.enemyHqCount > 0 ? closest(WorldModel.enemyHqLoc, WorldModel.enemyHqCount)
+					: new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2);
+			rank(combatRank, target);
+		}
+		int wells = WellIndex.count(ResourceType.ADAMANTIUM) + WellIndex.count(ResourceType.MANA)
+				+ WellIndex.count(ResourceType.ELIXIR);
+		if (knownWells != wells) {
+			knownWells = wells;
+			MapLocation target = wells > 0 ? closest(WorldModel.wellLoc, Comms.WELL_COUNT)
+					: new MapLocation(rc.getMapWidth() / 2, rc.getMapHeight() / 2);
+			rank(carrierRank, target);
+		}
+	}
+
+	private static MapLocation closest(int[] packed, int n) {
+		int best = WorldModel.NONE;
+		int bestDist = Integer.MAX_VALUE;
+		for (int i = n; --i >= 0;) {
+			int p = packed[i];
+			if (p == WorldModel.NONE)
+				continue;
+			int dx = (p & 0b111111) - hq.x;
+			int dy = (p >> 6) - hq.y;
+			int d = dx * dx + dy * dy;
+			if (d < bestDist) {
+				bestDist = d;
+				best = p;
+			}
+		}
+		return WorldModel.location(best);
+	}
+
+	private static void rank(int[] order, MapLocation target) {
+		for (int k = 0; k < tileCount; k++) {
+			int t = tiles[k];
+			int dx = MapMemory.x(t) - target.x;
+			int dy = MapMemory.y(t) - target.y;
+			int d = dx * dx + dy * dy;
+			int j = k;
+			for (; j > 0 && dist[j - 1] > d; j--) {
+				order[j] = order[j - 1];
+				dist[j] = dist[j - 1];
+			}
+			order[j] = t;
+			dist[j] = d;
+		}
+	}
+
+	/**
+	 * Builds a robot of the given type on the best free tile.
+	 *
+	 * @return true if the robot was built
+	 */
+	static boolean spawn(RobotController rc, RobotType type) throws GameActionException {
+		if (!rc.isActionReady() || rc.getResourceAmount(ResourceType.ADAMANTIUM) < type.buildCostAdamantium
+				|| rc.getResourceAmount(ResourceType.MANA) < type.buildCostMana)
+			return false;
+		int[] order = type == RobotType.CARRIER ? carrierRank : combatRank;
+		for (int k = 0; k < tileCount; k++) {
+			int t = order[k];
+			MapLocation loc = new MapLocation(MapMemory.x(t), MapMemory.y(t));
+			if (rc.canBuildRobot(type, loc)) {
+				rc.buildRobot(type, loc);
+				return true;
+			}
+		}
+		return false;
+	}
+}
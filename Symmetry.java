@@ -0,0 +1,5 @@
+package realplayer2;
+
+enum Symmetry {
+	ROTATION, HORIZONTAL, VERTICAL, UNKNOWN
+}
@@ -0,0 +1,203 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Rules out map symmetries from terrain evidence.
+ *
+ * Every newly remembered tile is queued and later compared with its mirror under each symmetry that is still
+ * possible; if the mirror is known and differs (wall, cloud, current, well or island) that symmetry is ruled out.
+ * That is constant work per tile, done by a scheduler task in spare bytecode, and once a single symmetry is left
+ * nothing is compared anymore. Known enemy HQs are strong evidence as well: every enemy HQ is the mirror of one of
+ * ours, so a symmetry under which none of our HQs mirrors onto it is ruled out. Ruled out symmetries are shared as
+ * a bitmask (bit = Symmetry ordinal) that robots only ever add to.
+ */
+final class SymmetrySolver {
+
+	static final int ALL = (1 << Symmetry.ROTATION.ordinal()) | (1 << Symmetry.HORIZONTAL.ordinal())
+			| (1 << Symmetry.VERTICAL.ordinal());
+
+	static int eliminated = 0;
+	static Symmetry symmetry = Symmetry.UNKNOWN; // set once a single symmetry is left
+
+	// the features that have to match between a tile and its mirror (currents are compared separately)
+	private static final int FEATURES = MapMemory.KNOWN | MapMemory.WALL | MapMemory.CLOUD
+			| (0b111 << MapMemory.WELL_SHIFT);
+	private static final int ISLAND_MASK = 0b111111 << MapMemory.ISLAND_SHIFT;
+	private static final Symmetry[] CANDIDATES = { Symmetry.ROTATION, Symmetry.HORIZONTAL, Symmetry.VERTICAL };
+
+	// current direction ordinal + 1 (as stored in MapMemory) -> its mirror, per symmetry
+	private static final int[] ROTATED_CURRENT = { 0, 5, 6, 7, 8, 1, 2, 3, 4, 9 };
+	private static final int[] HORIZONTAL_CURRENT = { 0, 5, 4, 3, 2, 1, 8, 7, 6, 9 };
+	private static final int[] VERTICAL_CURRENT = { 0, 1, 8, 7, 6, 5, 4, 3, 2, 9 };
+
+	private static int rotationBase, horizontalBase, verticalBase;
+	private static int published = 0;
+	private static int enemyHqsChecked = 0;
+
+	// tiles waiting to be observed, as a ring buffer
+	private static final int[] pending = new int[1024];
+	private static int head = 0, tail = 0;
+
+	/**
+	 * Drains the queue of newly remembered tiles. Finishes once the symmetry is known.
+	 */
+	static final class ObserveTask extends Task {
+		ObserveTask(int priority) {
+			super(priority);
+		}
+
+		@Override
+		boolean step(RobotController rc, int reserve) {
+			if (Profiler.ENABLED)
+				Profiler.begin(Profiler.SYMMETRY);
+			while (head != tail && symmetry == Symmetry.UNKNOWN && Clock.getBytecodesLeft() > reserve)
+				observe(pending[head++ & (pending.length - 1)]);
+			if (Profiler.ENABLED)
+				Profiler.end(Profiler.SYMMETRY);
+			return symmetry != Symmetry.UNKNOWN;
+		}
+	}
+
+	static void init(int width, int height) {
+		// mirror indices in MapMemory coordinates, see observe
+		rotationBase = height * MapMemory.STRIDE + width + MapMemory.STRIDE + 1;
+		horizontalBase = (height + 1) * MapMemory.STRIDE;
+		verticalBase = width + 1;
+	}
+
+	static void queue(int i) {
+		if (symmetry == Symmetry.UNKNOWN && tail - head < pending.length)
+			pending[tail++ & (pending.length - 1)] = i;
+	}
+
+	/**
+	 * Checks a newly remembered tile against its mirrors.
+	 */
+	static void observe(int i) {
+		if (symmetry != Symmetry.UNKNOWN)
+			return;
+		int[] tiles = MapMemory.tiles;
+		int tile = tiles[i];
+		int row = i & ~(MapMemory.STRIDE - 1);
+		int col = i & (MapMemory.STRIDE - 1);
+		int current = (tile >> MapMemory.CURRENT_SHIFT) & 0b1111;
+
+		if ((eliminated & (1 << Symmetry.ROTATION.ordinal())) == 0) {
+			int m = tiles[rotationBase - i];
+			if ((m & MapMemory.KNOWN) != 0 && !matches(tile, m, ROTATED_CURRENT[current]))
+				eliminate(Symmetry.ROTATION);
+		}
+		if ((eliminated & (1 << Symmetry.HORIZONTAL.ordinal())) == 0) {
+			int m = tiles[horizontalBase - row + col];
+			if ((m & MapMemory.KNOWN) != 0 && !matches(tile, m, HORIZONTAL_CURRENT[current]))
+				eliminate(Symmetry.HORIZONTAL);
+		}
+		if ((eliminated & (1 << Symmetry.VERTICAL.ordinal())) == 0) {
+			int m = tiles[row + verticalBase - col];
+			if ((m & MapMemory.KNOWN) != 0 && !matches(tile, m, VERTICAL_CURRENT[current]))
+				eliminate(Symmetry.VERTICAL);
+		}
+	}
+
+	/**
+	 * Checks the enemy HQs learned since the last call against our HQs, which are all known after the first round.
+	 */
+	static void observeHqs(RobotController rc) {
+		if (symmetry != Symmetry.UNKNOWN || WorldModel.enemyHqCount == enemyHqsChecked || WorldModel.hqCount == 0
+				|| rc.getRoundNum() == 1)
+			return;
+		for (; enemyHqsChecked < WorldModel.enemyHqCount; enemyHqsChecked++) {
+			int e = WorldModel.enemyHqLoc[enemyHqsChecked];
+			int enemy = MapMemory.index(e & 0b111111, e >> 6);
+			int ruledOut = 0;
+			for (Symmetry sym : CANDIDATES) {
+				boolean mirrored = false;
+				for (int k = WorldModel.hqCount; --k >= 0;) {
+					int h = WorldModel.hqLoc[k];
+					if (mirror(MapMemory.index(h & 0b111111, h >> 6), sym) == enemy)
+						mirrored = true;
+				}
+				if (!mirrored)
+					ruledOut |= 1 << sym.ordinal();
+			}
+			merge(ruledOut);
+		}
+	}
+
+	private static boolean matches(int tile, int mirror, int mirroredCurrent) {
+		return (tile & FEATURES) == (mirror & FEATURES)
+				&& ((tile & ISLAND_MASK) == 0) == ((mirror & ISLAND_MASK) == 0)
+				&& ((mirror >> MapMemory.CURRENT_SHIFT) & 0b1111) == mirroredCurrent;
+	}
+
+	private static void eliminate(Symmetry s) {
+		merge(1 << s.ordinal());
+	}
+
+	/**
+	 * Adds symmetries ruled out elsewhere (e.g. read from the shared array).
+	 */
+	static void merge(int mask) {
+		int next = eliminated | mask;
+		if (next == ALL)
+			return; // contradicting evidence -> keep the last candidate
+		eliminated = next;
+		int left = ALL & ~next;
+		if ((left & (left - 1)) == 0)
+			symmetry = Symmetry.values()[Integer.numberOfTrailingZeros(left)];
+	}
+
+	/**
+	 * Shares what this robot ruled out if the shared array does not have it yet.
+	 */
+	static void publish(RobotController rc) throws GameActionException {
+		if (eliminated == published)
+			return;
+		int shared = Comms.readEliminatedSymmetries();
+		if ((shared | eliminated) == shared || Comms.writeEliminatedSymmetries(rc, shared | eliminated))
+			published = eliminated;
+	}
+
+	/**
+	 * @return the symmetry if it is known, otherwise the first one (by ordinal) that is still possible
+	 */
+	static Symmetry likeliest() {
+		if (symmetry != Symmetry.UNKNOWN)
+			return symmetry;
+		return Symmetry.values()[Integer.numberOfTrailingZeros(ALL & ~eliminated)];
+	}
+
+	/**
+	 * @return the MapMemory index of the tile mirroring i under the known symmetry, or -1 while it is unknown
+	 */
+	static int mirrorIndex(int i) {
+		return mirror(i, symmetry);
+	}
+
+	private static int mirror(int i, Symmetry sym) {
+		switch (sym) {
+			case ROTATION:
+				return rotationBase - i;
+			case HORIZONTAL:
+				return horizontalBase - (i & ~(MapMemory.STRIDE - 1)) + (i & (MapMemory.STRIDE - 1));
+			case VERTICAL:
+				return (i & ~(MapMemory.STRIDE - 1)) + verticalBase - (i & (MapMemory.STRIDE - 1));
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * @return the symmetry if it is known, otherwise a random one that is still possible
+	 */
+	static Symmetry guess() {
+		if (symmetry != Symmetry.UNKNOWN)
+			return symmetry;
+		int left = ALL & ~eliminated;
+		int pick = RobotPlayer.rng.nextInt(Integer.bitCount(left));
+		for (; pick > 0; pick--)
+			left &= left - 1;
+		return Symmetry.values()[Integer.numberOfTrailingZeros(left)];
+	}
+}
@@ -0,0 +1,22 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * A unit of work that may take several turns. Implementations keep their own progress (the checkpoint) in fields
+ * and continue from it on the next call.
+ */
+abstract class Task {
+	final int priority;
+
+	Task(int priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * Works until there is nothing left to do right now or fewer than reserve bytecodes are left.
+	 *
+	 * @return true if the task is finished and can be dropped
+	 */
+	abstract boolean step(RobotController rc, int reserve) throws GameActionException;
+}
@@ -0,0 +1,109 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+/**
+ * Known wells (WorldModel record indices) grouped by resource type, each group kept sorted by distance to an origin
+ * (the carrier's starting HQ).
+ *
+ * Distances are computed once when a well is learned and the groups are kept sorted by insertion, so picking a
+ * well allocates nothing and costs at most one step per candidate.
+ */
+final class WellIndex {
+
+	private static final int TYPES = ResourceType.values().length;
+
+	private static final int[][] sorted = new int[TYPES][Comms.WELL_COUNT];
+	private static final int[][] dist = new int[TYPES][Comms.WELL_COUNT];
+	private static final int[] size = new int[TYPES];
+	private static MapLocation origin;
+
+	/**
+	 * Adds a well learned from the shared array. Wells that are already known are ignored.
+	 */
+	static void add(int well) {
+		int t = WorldModel.wellType[well];
+		int[] wells = sorted[t];
+		int[] d = dist[t];
+		int n = size[t];
+		for (int i = n; --i >= 0;) {
+			if (wells[i] == well)
+				return;
+		}
+		if (n == wells.length)
+			return;
+
+		int wd = origin == null ? 0 : origin.distanceSquaredTo(WorldModel.wellLocation(well));
+		int i = n;
+		for (; i > 0 && d[i - 1] > wd; i--) {
+			wells[i] = wells[i - 1];
+			d[i] = d[i - 1];
+		}
+		wells[i] = well;
+		d[i] = wd;
+		size[t] = n + 1;
+	}
+
+	/**
+	 * Sets the location distances are measured from and re-sorts the known wells.
+	 */
+	static void setOrigin(MapLocation loc) {
+		origin = loc;
+		for (int t = TYPES; --t >= 0;) {
+			int[] wells = sorted[t];
+			int[] d = dist[t];
+			int n = size[t];
+			for (int i = 0; i < n; i++) {
+				int well = wells[i];
+				int wd = loc.distanceSquaredTo(WorldModel.wellLocation(well));
+				int j = i;
+				for (; j > 0 && d[j - 1] > wd; j--) {
+					wells[j] = wells[j - 1];
+					d[j] = d[j - 1];
+				}
+				wells[j] = well;
+				d[j] = wd;
+			}
+		}
+	}
+
+	static int count(ResourceType type) {
+		return size[type.ordinal()];
+	}
+
+	/**
+	 * @return the index of the j-th nearest well of a type (j < count(type))
+	 */
+	static int get(ResourceType type, int j) {
+		return sorted[type.ordinal()][j];
+	}
+
+	/**
+	 * Picks one of the nearest wells of a type: the nearest with a 2/3 chance, otherwise the next one with a 2/3
+	 * chance and so on.
+	 *
+	 * @return the well's index, or WorldModel.NONE if no well of that type is known
+	 */
+	static int pickNearest(ResourceType type) {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.WEIGHTED_WELL);
+		int t = type.ordinal();
+		int last = size[t] - 1;
+		int j = 0;
+		while (j < last && RobotPlayer.rng.nextInt(3) == 2)
+			j++;
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.WEIGHTED_WELL);
+		return last < 0 ? WorldModel.NONE : sorted[t][j];
+	}
+
+	/**
+	 * @return the index of a uniformly random well of a type, or WorldModel.NONE if no well of that type is known
+	 */
+	static int random(ResourceType type) {
+		int t = type.ordinal();
+		if (size[t] == 0)
+			return WorldModel.NONE;
+		return sorted[t][RobotPlayer.rng.nextInt(size[t])];
+	}
+}
@@ -0,0 +1,191 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import java.util.Arrays;
+
+/**
+ * What the team knows about the map, as parallel primitive arrays indexed by shared array record.
+ *
+ * Locations are packed as x | y << 6 (NONE if the record is empty), teams and resource types are stored as
+ * ordinals. MapLocations are only built by the accessors, at the point a caller actually needs one.
+ */
+final class WorldModel {
+
+	static final int NONE = -1;
+
+	static final int[] hqLoc = new int[Comms.HQ_COUNT];
+	static final int[] enemyHqLoc = new int[Comms.ENEMY_HQ_COUNT];
+	static int hqCount = 0, enemyHqCount = 0; // records are filled in order
+
+	static final int[] wellLoc = new int[Comms.WELL_COUNT];
+	static final byte[] wellType = new byte[Comms.WELL_COUNT]; // ResourceType ordinal
+
+	static final int[] islandLoc = new int[Comms.ISLAND_COUNT];
+	static final byte[] islandTeam = new byte[Comms.ISLAND_COUNT]; // Team ordinal
+	static final int[] islandRound = new int[Comms.ISLAND_COUNT]; // round the record last changed
+
+	static final int[] sightingLoc = new int[Comms.SIGHTING_COUNT];
+	static final byte[] sightingSize = new byte[Comms.SIGHTING_COUNT]; // size bucket
+	static final byte[] sightingStamp = new byte[Comms.SIGHTING_COUNT]; // round / Sightings.ROUND_UNIT, wrapping
+
+	static {
+		Arrays.fill(hqLoc, NONE);
+		Arrays.fill(enemyHqLoc, NONE);
+		Arrays.fill(wellLoc, NONE);
+		Arrays.fill(islandLoc, NONE);
+		Arrays.fill(sightingLoc, NONE);
+	}
+
+	static int pack(MapLocation loc) {
+		return loc.x | loc.y << 6;
+	}
+
+	static MapLocation location(int packed) {
+		return new MapLocation(packed & 0b111111, packed >> 6);
+	}
+
+	// updates (from the shared array) ===============================
+
+	static void setHq(int index, int packed, boolean isEnemy) {
+		int[] locs = !isEnemy ? hqLoc : enemyHqLoc;
+		locs[index] = packed;
+		int n = 0;
+		while (n < locs.length && locs[n] != NONE)
+			n++;
+		if (!isEnemy)
+			hqCount = n;
+		else
+			enemyHqCount = n;
+	}
+
+	static void setWell(int index, int packed, int type) {
+		wellLoc[index] = packed;
+		wellType[index] = (byte) type;
+	}
+
+	/**
+	 * Stores an island record read from the shared array. Dirty tracking is per slot, so records that share a slot
+	 * with a changed one are read again: islandRound only moves if this record itself changed.
+	 */
+	static void setIsland(int index, int packed, int team, int round) {
+		if (islandLoc[index] == packed && islandTeam[index] == team)
+			return;
+		islandLoc[index] = packed;
+		islandTeam[index] = (byte) team;
+		islandRound[index] = round;
+	}
+
+	static void setSighting(int index, int packed, int size, int stamp) {
+		sightingLoc[index] = packed;
+		sightingSize[index] = (byte) size;
+		sightingStamp[index] = (byte) stamp;
+	}
+
+	// queries =======================================================
+
+	/**
+	 * @return a random known HQ, or null if none is known
+	 */
+	static MapLocation randomHq(boolean isEnemy) {
+		int n = !isEnemy ? hqCount : enemyHqCount;
+		if (n == 0)
+			return null;
+		return location((!isEnemy ? hqLoc : enemyHqLoc)[RobotPlayer.rng.nextInt(n)]);
+	}
+
+	static boolean isEnemyHq(MapLocation loc) {
+		int p = pack(loc);
+		for (int i = enemyHqCount; --i >= 0;) {
+			if (enemyHqLoc[i] == p)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return our HQ closest to loc, or null if none is known
+	 */
+	static MapLocation closestHq(MapLocation loc) {
+		int best = NONE;
+		int bestDist = Integer.MAX_VALUE;
+		for (int i = hqCount; --i >= 0;) {
+			int p = hqLoc[i];
+			int dx = (p & 0b111111) - loc.x;
+			int dy = (p >> 6) - loc.y;
+			int d = dx * dx + dy * dy;
+			if (d < bestDist) {
+				bestDist = d;
+				best = p;
+			}
+		}
+		return best == NONE ? null : location(best);
+	}
+
+	static int countIslands(Team team) {
+		int t = team.ordinal();
+		int count = 0;
+		for (int i = Comms.ISLAND_COUNT; --i >= 0;) {
+			if (islandLoc[i] != NONE && islandTeam[i] == t)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return the index of a random island held by team, or NONE
+	 */
+	static int randomIsland(Team team) {
+		if (Profiler.ENABLED)
+			Profiler.begin(Profiler.RANDOM_ISLAND);
+		int count = countIslands(team);
+		int result = NONE;
+		if (count > 0) {
+			int t = team.ordinal();
+			int pick = RobotPlayer.rng.nextInt(count);
+			for (int i = 0; i < Comms.ISLAND_COUNT; i++) {
+				if (islandLoc[i] != NONE && islandTeam[i] == t && pick-- == 0) {
+					result = i;
+					break;
+				}
+			}
+		}
+		if (Profiler.ENABLED)
+			Profiler.end(Profiler.RANDOM_ISLAND);
+		return result;
+	}
+
+	/**
+	 * @return the index of the island held by team closest to loc, or NONE
+	 */
+	static int closestIsland(MapLocation loc, Team team) {
+		int t = team.ordinal();
+		int best = NONE;
+		int bestDist = Integer.MAX_VALUE;
+		for (int i = Comms.ISLAND_COUNT; --i >= 0;) {
+			int p = islandLoc[i];
+			if (p == NONE || islandTeam[i] != t)
+				continue;
+			int dx = (p & 0b111111) - loc.x;
+			int dy = (p >> 6) - loc.y;
+			int d = dx * dx + dy * dy;
+			if (d < bestDist) {
+				bestDist = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	static MapLocation islandLocation(int index) {
+		return location(islandLoc[index]);
+	}
+
+	static MapLocation wellLocation(int index) {
+		return location(wellLoc[index]);
+	}
+
+	static MapLocation sightingLocation(int index) {
+		return location(sightingLoc[index]);
+	}
+}
@@ -0,0 +1,202 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import java.util.Random;
+
+/**
+ * Offline benchmarks for the player's hot helpers on synthetic maps from 20x20 to 60x60, run with
+ * {@code java realplayer2.Benchmarks} (engine jar and the test classes on the classpath).
+ *
+ * Every line reports the wall-clock time per call and the engine bytecodes per call of the RobotController methods
+ * the helper uses, charged from SimController.COSTS (the engine's method cost table). The player's own instructions
+ * are only counted by the engine's instrumenter, so changes to pure computation show in the wall-clock column.
+ *
+ * The helpers the first version of the player had map onto these: sortArrayByDistanceToLocation and
+ * randomWeightedWell onto WellIndex, hqFigureOutSymmetry onto SymmetrySolver, attackRobot's target selection onto
+ * Micro.fight and the shared array codecs onto Comms and readAllInformation. addMultipleToLocation no longer exists.
+ */
+final class Benchmarks {
+
+	private static final int[] SIZES = { 20, 40, 60 };
+	private static final int WARMUP = 20000; // calls before timing, so the JIT has compiled the helper
+	private static final int RUNS = 20000;
+
+	interface Op {
+		void run() throws GameActionException;
+	}
+
+	public static void main(String[] args) throws GameActionException {
+		System.out.printf("%-32s %-6s %-14s %12s %12s%n", "helper", "map", "setup", "ns/call", "bytecodes");
+		for (int size : SIZES) {
+			wells(size);
+			islands(size);
+			symmetry(size);
+			fight(size);
+			comms(size);
+			path(size);
+		}
+	}
+
+	private static void report(String helper, int size, String setup, SimController sim, Op op)
+			throws GameActionException {
+		for (int i = WARMUP; --i >= 0;)
+			op.run();
+		int bytecodes = sim.bytecodes;
+		long start = System.nanoTime();
+		for (int i = RUNS; --i >= 0;)
+			op.run();
+		long ns = System.nanoTime() - start;
+		System.out.printf("%-32s %2dx%-3d %-14s %12.1f %12.1f%n", helper, size, size, setup, ns / (double) RUNS,
+				(sim.bytecodes - bytecodes) / (double) RUNS);
+	}
+
+	/**
+	 * A map that is symmetric under rotation, like the real ones: about 12% walls, some clouds and currents, and a
+	 * clear 3x3 in the middle where the robot stands.
+	 */
+	static SimController map(int size, RobotType type, long seed) {
+		Random random = new Random(seed);
+		int c = size / 2;
+		SimController sim = new SimController(size, size, type, Team.A, new MapLocation(c, c));
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				int mx = size - 1 - x, my = size - 1 - y;
+				if (y * size + x > my * size + mx || Math.abs(x - c) <= 1 && Math.abs(y - c) <= 1
+						|| Math.abs(mx - c) <= 1 && Math.abs(my - c) <= 1)
+					continue; // the mirror half, or next to the robot
+				int roll = random.nextInt(100);
+				if (roll < 12) {
+					sim.wall(x, y).wall(mx, my);
+				} else if (roll < 16) {
+					sim.cloud(x, y).cloud(mx, my);
+				} else if (roll < 19) {
+					Direction d = Geometry.DIRECTIONS[random.nextInt(8)];
+					sim.current(x, y, d).current(mx, my, d.opposite());
+				}
+			}
+		}
+		SimController.respawn();
+		RobotPlayer.rng.setSeed(seed);
+		return sim;
+	}
+
+	private static MapLocation randomTile(Random random, int size) {
+		return new MapLocation(random.nextInt(size), random.nextInt(size));
+	}
+
+	private static void wells(int size) throws GameActionException {
+		for (int n : new int[] { 2, 4, Comms.WELL_COUNT }) {
+			SimController sim = map(size, RobotType.CARRIER, size);
+			Random random = new Random(n);
+			for (int i = 0; i < n; i++) {
+				WorldModel.setWell(i, WorldModel.pack(randomTile(random, size)), ResourceType.MANA.ordinal());
+				WellIndex.add(i);
+			}
+			MapLocation a = new MapLocation(1, 1), b = new MapLocation(size - 2, size - 2);
+			report("WellIndex.pickNearest", size, n + " wells", sim, () -> WellIndex.pickNearest(ResourceType.MANA));
+			report("WellIndex.setOrigin", size, n + " wells", sim,
+					() -> WellIndex.setOrigin(sim.round++ % 2 == 0 ? a : b));
+		}
+	}
+
+	private static void islands(int size) throws GameActionException {
+		for (int n : new int[] { 4, 12, Comms.ISLAND_COUNT }) {
+			SimController sim = map(size, RobotType.LAUNCHER, size);
+			Random random = new Random(n);
+			for (int i = 0; i < n; i++)
+				WorldModel.setIsland(i, WorldModel.pack(randomTile(random, size)), random.nextInt(3), 1);
+			report("WorldModel.randomIsland", size, n + " islands", sim, () -> WorldModel.randomIsland(Team.A));
+		}
+	}
+
+	private static void symmetry(int size) throws GameActionException {
+		SimController sim = map(size, RobotType.HEADQUARTERS, size);
+		MapMemory.update(sim.rc);
+		int[] known = new int[MapMemory.CELLS];
+		int n = 0;
+		for (int i = 0; i < MapMemory.CELLS; i++) {
+			if ((MapMemory.tiles[i] & MapMemory.KNOWN) != 0)
+				known[n++] = i;
+		}
+		int count = n;
+		// the map is symmetric under rotation, so nothing is ruled out and every tile is compared with all mirrors
+		report("SymmetrySolver.observe", size, count + " tiles", sim, () -> {
+			for (int k = count; --k >= 0;)
+				SymmetrySolver.observe(known[k]);
+		});
+
+		int c = size / 2;
+		WorldModel.setHq(0, WorldModel.pack(new MapLocation(2, 3)), false);
+		WorldModel.setHq(1, WorldModel.pack(new MapLocation(c, 2)), false);
+		WorldModel.setHq(0, WorldModel.pack(new MapLocation(size - 3, size - 4)), true);
+		sim.round = 2;
+		report("SymmetrySolver.observeHqs", size, "2 HQs", sim, () -> {
+			SymmetrySolver.eliminated = 0;
+			SymmetrySolver.symmetry = Symmetry.UNKNOWN;
+			SimController.set(SymmetrySolver.class, "enemyHqsChecked", 0);
+			SymmetrySolver.observeHqs(sim.rc);
+		});
+	}
+
+	private static void fight(int size) throws GameActionException {
+		for (int n : new int[] { 2, 6, 12 }) {
+			SimController sim = map(size, RobotType.LAUNCHER, size);
+			MapLocation start = sim.location;
+			Random random = new Random(n);
+			for (int i = 0; i < n; i++) {
+				MapLocation l = start.translate(random.nextInt(9) - 4, random.nextInt(9) - 4);
+				if (!l.equals(start) && l.isWithinDistanceSquared(start, RobotType.LAUNCHER.visionRadiusSquared))
+					sim.robot(100 + i, Team.B, i % 2 == 0 ? RobotType.LAUNCHER : RobotType.CARRIER, l.x, l.y);
+			}
+			Nearby.scan(sim.rc);
+			report("Micro.fight", size, n + " enemies", sim, () -> {
+				sim.location = start;
+				sim.movementCooldown = sim.actionCooldown = 0;
+				Micro.fight(sim.rc);
+			});
+		}
+	}
+
+	private static void comms(int size) throws GameActionException {
+		SimController sim = map(size, RobotType.HEADQUARTERS, size);
+		SharedSync.sync(sim.rc);
+		Random random = new Random(size);
+		for (int i = 0; i < Comms.WELL_COUNT; i++)
+			Comms.writeWell(sim.rc, randomTile(random, size), ResourceType.MANA);
+		for (int i = 0; i < 12; i++)
+			Comms.writeIsland(sim.rc, i, randomTile(random, size), Team.NEUTRAL);
+		RobotPlayer.readAllInformation(sim.rc);
+
+		report("Comms.write (flow hint)", size, "", sim,
+				() -> Comms.writeFlowHint(sim.rc, sim.round % Sectors.COUNT, sim.round++ & 7));
+		report("Comms.read (all records)", size, "", sim, () -> {
+			for (int i = Comms.HQ_COUNT; --i >= 0;)
+				Comms.readHq(i, false);
+			for (int i = Comms.WELL_COUNT; --i >= 0;)
+				Comms.readWell(i);
+			for (int i = Comms.ISLAND_COUNT; --i >= 0;)
+				Comms.readIsland(i);
+			for (int i = Comms.SIGHTING_COUNT; --i >= 0;)
+				Comms.readSighting(i);
+		});
+		// another robot changed one island record since the last read
+		report("readAllInformation", size, "1 slot changed", sim, () -> {
+			int slot = Comms.ISLAND_OFFSET / 16;
+			sim.shared[slot] ^= 1;
+			sim.shared[SharedSync.VERSION_INDEX] = (sim.shared[SharedSync.VERSION_INDEX] + 1)
+					& GameConstants.MAX_SHARED_ARRAY_VALUE;
+			RobotPlayer.readAllInformation(sim.rc);
+		});
+	}
+
+	private static void path(int size) throws GameActionException {
+		SimController sim = map(size, RobotType.LAUNCHER, size);
+		MapMemory.update(sim.rc);
+		MapLocation target = new MapLocation(size - 1, size - 1);
+		report("Pathfinder.bestStep", size, "known tiles", sim, () -> {
+			SimController.forgetPath();
+			Pathfinder.bestStep(sim.rc, target, RobotPlayer.PATH_BYTECODES);
+		});
+	}
+}
@@ -0,0 +1,42 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommsTest {
+
+	@Test
+	public void recordsSurviveTheRoundTripThroughTheSharedArray() throws GameActionException {
+		SimController sim = new SimController(30, 20, RobotType.HEADQUARTERS, Team.A, new MapLocation(4, 5));
+		SimController.respawn();
+		SharedSync.sync(sim.rc);
+
+		assertTrue(Comms.writeHq(sim.rc, new MapLocation(4, 5), false));
+		assertTrue(Comms.writeWell(sim.rc, new MapLocation(29, 19), ResourceType.MANA));
+		assertTrue(Comms.writeSighting(sim.rc, 3, new MapLocation(17, 0), 2, 63));
+
+		// a second robot, starting with an empty mirror, reads the records back from the array
+		SimController.respawn();
+		SharedSync.sync(sim.rc);
+		assertEquals(4 | 5 << 6, Comms.readHq(0, false));
+		assertEquals(29 | 19 << 6, Comms.readWell(0));
+		assertEquals(ResourceType.MANA.ordinal(), Comms.readWellType(0));
+		assertEquals(17, Comms.readSighting(3));
+		assertEquals(2, Comms.readSightingSize(3));
+		assertEquals(63, Comms.readSightingStamp(3));
+	}
+
+	@Test
+	public void writesFailOutOfRange() throws GameActionException {
+		SimController sim = new SimController(20, 20, RobotType.CARRIER, Team.A, new MapLocation(0, 0));
+		SimController.respawn();
+		SharedSync.sync(sim.rc);
+		sim.canWrite = false;
+		assertFalse(Comms.writeFlowTarget(sim.rc, new MapLocation(7, 7)));
+	}
+}
@@ -0,0 +1,54 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MapMemoryTest {
+
+	private static boolean known(int x, int y) {
+		return (MapMemory.tiles[MapMemory.index(x, y)] & MapMemory.KNOWN) != 0;
+	}
+
+	@Test
+	public void remembersTheTerrainInVision() throws GameActionException {
+		SimController sim = new SimController(20, 20, RobotType.LAUNCHER, Team.A, new MapLocation(10, 10))
+				.wall(11, 10).current(9, 10, Direction.NORTH).cloud(10, 12).well(10, 8, ResourceType.MANA)
+				.island(12, 12, 3).wall(18, 18);
+		SimController.respawn();
+		MapMemory.update(sim.rc);
+
+		int wall = MapMemory.index(11, 10);
+		assertTrue(known(11, 10));
+		assertFalse(MapMemory.isPassable(wall));
+		assertTrue(MapMemory.isPassable(MapMemory.index(10, 11)));
+		assertEquals(Direction.NORTH.ordinal(), MapMemory.currentAt(MapMemory.index(9, 10)));
+		assertTrue(MapMemory.hasCloud(MapMemory.index(10, 12)));
+		assertEquals(ResourceType.MANA.ordinal(), MapMemory.wellAt(MapMemory.index(10, 8)));
+		assertEquals(3 + 1, MapMemory.tiles[MapMemory.index(12, 12)] >> MapMemory.ISLAND_SHIFT & 0b111111);
+		assertFalse(known(18, 18)); // out of vision
+	}
+
+	@Test
+	public void aStepSensesTheTilesThatCameIntoVision() throws GameActionException {
+		SimController sim = new SimController(20, 20, RobotType.CARRIER, Team.A, new MapLocation(10, 10))
+				.wall(15, 12);
+		SimController.respawn();
+		MapMemory.update(sim.rc);
+		assertFalse(known(15, 12));
+
+		sim.rc.move(Direction.EAST);
+		sim.endTurn();
+		int before = sim.bytecodes;
+		MapMemory.update(sim.rc);
+		assertTrue(known(15, 12));
+		assertFalse(MapMemory.isPassable(MapMemory.index(15, 12)));
+		// only the new edge is sensed, one tile at a time
+		assertTrue(sim.bytecodes - before < SimController.COSTS.get("senseNearbyMapInfos")
+				+ SimController.COSTS.get("senseNearbyWells") + 40);
+	}
+}
@@ -0,0 +1,81 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class PathfinderTest {
+
+	// Clock reads no bytecodes left outside the engine, so the searches get a budget they never reach
+	private static final int UNBOUNDED = 1 << 30;
+
+	/**
+	 * Walks the robot towards target with one path search per turn.
+	 *
+	 * @return the number of turns it took, or -1 if it did not arrive within maxTurns
+	 */
+	private static int walk(SimController sim, MapLocation target, int maxTurns) throws GameActionException {
+		for (int turn = 0; turn < maxTurns; turn++) {
+			if (sim.location.equals(target))
+				return turn;
+			MapMemory.update(sim.rc);
+			if (sim.rc.isMovementReady()) {
+				Direction step = Pathfinder.bestStep(sim.rc, target, UNBOUNDED);
+				assertNotNull("no step from " + sim.location, step);
+				sim.rc.move(step);
+			}
+			sim.endTurn();
+		}
+		return -1;
+	}
+
+	@Test
+	public void goesAroundAWall() throws GameActionException {
+		SimController sim = new SimController(30, 20, RobotType.CARRIER, Team.A, new MapLocation(5, 10));
+		for (int y = 8; y <= 12; y++)
+			sim.wall(9, y);
+		SimController.respawn();
+
+		assertTrue(walk(sim, new MapLocation(20, 10), 40) >= 0);
+	}
+
+	@Test
+	public void getsOutOfAConcaveWall() throws GameActionException {
+		// a cup open towards the robot, between it and the target
+		SimController sim = new SimController(30, 20, RobotType.CARRIER, Team.A, new MapLocation(5, 10));
+		for (int y = 7; y <= 13; y++)
+			sim.wall(9, y);
+		for (int x = 7; x < 9; x++)
+			sim.wall(x, 7).wall(x, 13);
+		SimController.respawn();
+
+		assertTrue(walk(sim, new MapLocation(20, 10), 40) >= 0);
+	}
+
+	@Test
+	public void currentsPointingOffTheMapDoNotPushTheSearchOffIt() throws GameActionException {
+		// the bottom row of a map and the top row of a 60 high one border the edge of the memory grid
+		SimController bottom = new SimController(20, 20, RobotType.CARRIER, Team.A, new MapLocation(5, 2));
+		for (int x = 0; x < 20; x++)
+			bottom.current(x, 0, Direction.SOUTH);
+		SimController.respawn();
+		MapMemory.update(bottom.rc);
+		int edge = MapMemory.index(5, 0);
+		assertEquals(edge, MoveCost.landing(edge));
+		assertTrue(walk(bottom, new MapLocation(15, 0), 30) >= 0);
+
+		SimController top = new SimController(20, GameConstants.MAP_MAX_HEIGHT, RobotType.CARRIER, Team.A,
+				new MapLocation(5, 57));
+		for (int x = 0; x < 20; x++)
+			top.current(x, GameConstants.MAP_MAX_HEIGHT - 1, Direction.NORTH);
+		SimController.respawn();
+		MapMemory.update(top.rc);
+		edge = MapMemory.index(5, GameConstants.MAP_MAX_HEIGHT - 1);
+		assertEquals(edge, MoveCost.landing(edge));
+		assertTrue(walk(top, new MapLocation(15, GameConstants.MAP_MAX_HEIGHT - 1), 30) >= 0);
+	}
+}
@@ -0,0 +1,464 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An offline stand-in for the engine's RobotController, so the player's code can be driven from unit tests.
+ *
+ * One robot on a grid of walls, currents, clouds, islands and wells, among other robots that stand still, with the
+ * shared array, movement and action cooldowns and the end of turn push by currents. The controller is a dynamic
+ * proxy, so it compiles against any engine version; calls it does not model throw UnsupportedOperationException.
+ * MapInfo, WellInfo and RobotInfo are built with the engine's public constructors (see mapInfo, wellInfo and
+ * robotInfo).
+ *
+ * Clock is instrumented by the engine and cannot be replaced here: outside the engine it reports no bytecodes left,
+ * so tests pass the bounded searches a budget explicitly. Instead every call is charged from COSTS (the engine's
+ * method cost table) into bytecodes, which tests and benchmarks compare before and after a change.
+ */
+final class SimController implements InvocationHandler {
+
+	static final Map<String, Integer> COSTS = new HashMap<>();
+
+	static {
+		COSTS.put("senseNearbyRobots", 100);
+		COSTS.put("senseNearbyWells", 100);
+		COSTS.put("senseNearbyIslands", 200);
+		COSTS.put("senseNearbyIslandLocations", 100);
+		COSTS.put("senseNearbyMapInfos", 200);
+		COSTS.put("senseNearbyCloudLocations", 100);
+		COSTS.put("getAllLocationsWithinRadiusSquared", 100);
+	}
+
+	static final int ID = 1; // the simulated robot's id, other robots need different ones
+
+	final int width, height;
+	final RobotType type;
+	final Team team;
+	final RobotController rc;
+
+	private final boolean[] wall, cloud;
+	private final Direction[] current;
+	private final int[] island; // island id, -1 = none
+	private final List<WellInfo> wells = new ArrayList<>();
+	private final List<RobotInfo> robots = new ArrayList<>();
+
+	final int[] shared = new int[GameConstants.SHARED_ARRAY_LENGTH];
+	boolean canWrite = true; // whether the robot is in write range
+
+	MapLocation location;
+	int round = 1;
+	int movementCooldown = 0, actionCooldown = 0;
+	int bytecodes = 0; // summed COSTS of the calls made so far
+	String indicator = "";
+
+	SimController(int width, int height, RobotType type, Team team, MapLocation location) {
+		this.width = width;
+		this.height = height;
+		this.type = type;
+		this.team = team;
+		this.location = location;
+		wall = new boolean[width * height];
+		cloud = new boolean[width * height];
+		current = new Direction[width * height];
+		island = new int[width * height];
+		Arrays.fill(island, -1);
+		rc = (RobotController) Proxy.newProxyInstance(RobotController.class.getClassLoader(),
+				new Class<?>[] { RobotController.class }, this);
+	}
+
+	/**
+	 * Resets the player's per robot state (remembered terrain, shared array mirror, path search, known HQs, wells and
+	 * islands, symmetry), as if a new robot had spawned in this JVM. The player keeps that state in static fields, so
+	 * tests call this before driving a robot.
+	 */
+	static void respawn() {
+		Arrays.fill(MapMemory.tiles, 0);
+		set(MapMemory.class, "lastLoc", null);
+		set(MapMemory.class, "edgeDx", null);
+		set(MapMemory.class, "edgeDy", null);
+		Arrays.fill(SharedSync.mirror, 0);
+		SharedSync.dirty = 0;
+		set(SharedSync.class, "version", -1);
+		set(SharedSync.class, "written", 0L);
+		forgetPath();
+		Arrays.fill(WorldModel.hqLoc, WorldModel.NONE);
+		Arrays.fill(WorldModel.enemyHqLoc, WorldModel.NONE);
+		WorldModel.hqCount = WorldModel.enemyHqCount = 0;
+		Arrays.fill(WorldModel.wellLoc, WorldModel.NONE);
+		Arrays.fill(WorldModel.islandLoc, WorldModel.NONE);
+		Arrays.fill((int[]) get(WellIndex.class, "size"), 0);
+		SymmetrySolver.eliminated = 0;
+		SymmetrySolver.symmetry = Symmetry.UNKNOWN;
+		set(SymmetrySolver.class, "enemyHqsChecked", 0);
+		set(SymmetrySolver.class, "head", 0);
+		set(SymmetrySolver.class, "tail", 0);
+	}
+
+	/**
+	 * Drops the kept path and any unfinished path search, so the next call searches from scratch.
+	 */
+	static void forgetPath() {
+		set(Pathfinder.class, "searching", false);
+		set(Pathfinder.class, "pathGoal", -1);
+	}
+
+	private static Object get(Class<?> c, String name) {
+		try {
+			Field f = c.getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(null);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static void set(Class<?> c, String name, Object value) {
+		try {
+			Field f = c.getDeclaredField(name);
+			f.setAccessible(true);
+			f.set(null, value);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// map setup ======================================================
+
+	SimController wall(int x, int y) {
+		wall[y * width + x] = true;
+		return this;
+	}
+
+	SimController current(int x, int y, Direction d) {
+		current[y * width + x] = d;
+		return this;
+	}
+
+	SimController cloud(int x, int y) {
+		cloud[y * width + x] = true;
+		return this;
+	}
+
+	SimController island(int x, int y, int id) {
+		island[y * width + x] = id;
+		return this;
+	}
+
+	SimController well(int x, int y, ResourceType resource) {
+		wells.add(wellInfo(new MapLocation(x, y), resource));
+		return this;
+	}
+
+	SimController robot(int id, Team team, RobotType type, int x, int y) {
+		robots.add(robotInfo(id, team, type, new MapLocation(x, y)));
+		return this;
+	}
+
+	// engine 2023 constructors, the only place that depends on them
+
+	private MapInfo mapInfo(MapLocation l) {
+		int i = index(l);
+		Direction d = current[i] != null ? current[i] : Direction.CENTER;
+		double multiplier = cloud[i] ? 1.2 : 1;
+		return new MapInfo(l, cloud[i], !wall[i], new double[] { multiplier, multiplier }, d, new int[2], new int[2]);
+	}
+
+	private static WellInfo wellInfo(MapLocation l, ResourceType resource) {
+		return new WellInfo(l, resource, new Inventory(), false);
+	}
+
+	private static RobotInfo robotInfo(int id, Team team, RobotType type, MapLocation l) {
+		return new RobotInfo(id, team, type, new Inventory(), type.health, l);
+	}
+
+	// turns ==========================================================
+
+	/**
+	 * Ends the robot's turn: the current under it pushes it one tile if that tile is passable and free, and both
+	 * cooldowns go down by GameConstants.COOLDOWN_LIMIT.
+	 */
+	void endTurn() {
+		Direction d = current[index(location)];
+		if (d != null) {
+			MapLocation next = location.add(d);
+			if (onTheMap(next) && !wall[index(next)] && robotAt(next) == null)
+				location = next;
+		}
+		movementCooldown = Math.max(0, movementCooldown - GameConstants.COOLDOWN_LIMIT);
+		actionCooldown = Math.max(0, actionCooldown - GameConstants.COOLDOWN_LIMIT);
+		round++;
+	}
+
+	private int index(MapLocation l) {
+		return l.y * width + l.x;
+	}
+
+	private boolean onTheMap(MapLocation l) {
+		return l.x >= 0 && l.y >= 0 && l.x < width && l.y < height;
+	}
+
+	private RobotInfo robotAt(MapLocation l) {
+		for (RobotInfo r : robots) {
+			if (r.location.equals(l))
+				return r;
+		}
+		return null;
+	}
+
+	private boolean canMove(Direction d) {
+		MapLocation next = location.add(d);
+		return movementCooldown < GameConstants.COOLDOWN_LIMIT && onTheMap(next) && !wall[index(next)]
+				&& robotAt(next) == null;
+	}
+
+	private int vision() {
+		return cloud[index(location)] ? (int) GameConstants.CLOUD_VISION_RADIUS_SQUARED : type.visionRadiusSquared;
+	}
+
+	private boolean canSense(MapLocation l) {
+		return onTheMap(l) && location.isWithinDistanceSquared(l, vision());
+	}
+
+	private void requireSensed(MapLocation l) {
+		if (!canSense(l))
+			throw new IllegalArgumentException("cannot sense " + l);
+	}
+
+	/**
+	 * @return the center of a senseNearby* call: its MapLocation argument, or the robot's location
+	 */
+	private MapLocation center(Object[] args) {
+		if (args != null) {
+			for (Object a : args) {
+				if (a instanceof MapLocation)
+					return (MapLocation) a;
+			}
+		}
+		return location;
+	}
+
+	/**
+	 * @param ints the number of int arguments the call has without a radius
+	 *
+	 * @return the radius of a senseNearby* call, the robot's vision if there is none or it is -1
+	 */
+	private int radius(Object[] args, int ints) {
+		int r = -1, n = 0;
+		if (args != null) {
+			for (Object a : args) {
+				if (a instanceof Integer && n++ == 0)
+					r = (Integer) a;
+			}
+		}
+		return n > ints && r != -1 ? Math.min(r, vision()) : vision();
+	}
+
+	private static <T> T argument(Object[] args, Class<T> c) {
+		if (args != null) {
+			for (Object a : args) {
+				if (c.isInstance(a))
+					return c.cast(a);
+			}
+		}
+		return null;
+	}
+
+	private boolean inArea(MapLocation l, MapLocation center, int r2) {
+		return canSense(l) && center.isWithinDistanceSquared(l, r2);
+	}
+
+	// RobotController ================================================
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) {
+		String name = method.getName();
+		Integer cost = COSTS.get(name);
+		bytecodes += cost != null ? cost : 1;
+		switch (name) {
+			case "getRoundNum":
+				return round;
+			case "getMapWidth":
+				return width;
+			case "getMapHeight":
+				return height;
+			case "getRobotCount":
+				return 1 + (int) robots.stream().filter(r -> r.team == team).count();
+			case "getID":
+				return ID;
+			case "getTeam":
+				return team;
+			case "getType":
+				return type;
+			case "getHealth":
+				return type.health;
+			case "getLocation":
+				return location;
+			case "getResourceAmount":
+			case "getNumAnchors":
+				return 0;
+			case "onTheMap":
+				return onTheMap((MapLocation) args[0]);
+			case "canSenseLocation":
+				return canSense((MapLocation) args[0]);
+			case "sensePassability":
+				requireSensed((MapLocation) args[0]);
+				return !wall[index((MapLocation) args[0])];
+			case "senseCloud":
+				requireSensed((MapLocation) args[0]);
+				return cloud[index((MapLocation) args[0])];
+			case "senseIsland":
+				requireSensed((MapLocation) args[0]);
+				return island[index((MapLocation) args[0])];
+			case "senseMapInfo":
+				requireSensed((MapLocation) args[0]);
+				return mapInfo((MapLocation) args[0]);
+			case "senseNearbyMapInfos": {
+				MapLocation c = center(args);
+				int r2 = radius(args, 0);
+				List<MapInfo> found = new ArrayList<>();
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < width; x++) {
+						MapLocation l = new MapLocation(x, y);
+						if (inArea(l, c, r2))
+							found.add(mapInfo(l));
+					}
+				}
+				return found.toArray(new MapInfo[0]);
+			}
+			case "senseNearbyWells": {
+				MapLocation c = center(args);
+				int r2 = radius(args, 0);
+				ResourceType resource = argument(args, ResourceType.class);
+				List<WellInfo> found = new ArrayList<>();
+				for (WellInfo w : wells) {
+					if (inArea(w.getMapLocation(), c, r2) && (resource == null || w.getResourceType() == resource))
+						found.add(w);
+				}
+				return found.toArray(new WellInfo[0]);
+			}
+			case "senseWell": {
+				requireSensed((MapLocation) args[0]);
+				for (WellInfo w : wells) {
+					if (w.getMapLocation().equals(args[0]))
+						return w;
+				}
+				return null;
+			}
+			case "senseNearbyRobots": {
+				MapLocation c = center(args);
+				int r2 = radius(args, 0);
+				Team t = argument(args, Team.class);
+				List<RobotInfo> found = new ArrayList<>();
+				for (RobotInfo r : robots) {
+					if (inArea(r.location, c, r2) && (t == null || r.team == t))
+						found.add(r);
+				}
+				return found.toArray(new RobotInfo[0]);
+			}
+			case "canSenseRobotAtLocation":
+				return canSense((MapLocation) args[0]) && robotAt((MapLocation) args[0]) != null;
+			case "senseRobotAtLocation":
+				requireSensed((MapLocation) args[0]);
+				return robotAt((MapLocation) args[0]);
+			case "isLocationOccupied":
+				return location.equals(args[0]) || robotAt((MapLocation) args[0]) != null;
+			case "senseNearbyIslands": {
+				int[] ids = new int[0];
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < width; x++) {
+						int id = island[y * width + x];
+						if (id != -1 && canSense(new MapLocation(x, y))
+								&& Arrays.stream(ids).noneMatch(k -> k == id)) {
+							ids = Arrays.copyOf(ids, ids.length + 1);
+							ids[ids.length - 1] = id;
+						}
+					}
+				}
+				return ids;
+			}
+			case "senseNearbyIslandLocations": {
+				MapLocation c = center(args);
+				int r2 = radius(args, 1);
+				int id = (Integer) args[args.length - 1];
+				List<MapLocation> found = new ArrayList<>();
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < width; x++) {
+						MapLocation l = new MapLocation(x, y);
+						if (island[y * width + x] == id && inArea(l, c, r2))
+							found.add(l);
+					}
+				}
+				return found.toArray(new MapLocation[0]);
+			}
+			case "senseTeamOccupyingIsland":
+				return Team.NEUTRAL;
+			case "adjacentLocation":
+				return location.add((Direction) args[0]);
+			case "isMovementReady":
+				return movementCooldown < GameConstants.COOLDOWN_LIMIT;
+			case "isActionReady":
+				return actionCooldown < GameConstants.COOLDOWN_LIMIT;
+			case "getMovementCooldownTurns":
+				return movementCooldown;
+			case "getActionCooldownTurns":
+				return actionCooldown;
+			case "canMove":
+				return canMove((Direction) args[0]);
+			case "move": {
+				Direction d = (Direction) args[0];
+				if (!canMove(d))
+					throw new IllegalStateException("cannot move " + d + " from " + location);
+				// clouds make every cooldown 20% longer
+				movementCooldown += cloud[index(location)] ? type.movementCooldown * 6 / 5 : type.movementCooldown;
+				location = location.add(d);
+				return null;
+			}
+			case "canAttack":
+				return actionCooldown < GameConstants.COOLDOWN_LIMIT
+						&& location.isWithinDistanceSquared((MapLocation) args[0], type.actionRadiusSquared);
+			case "attack":
+				if (actionCooldown >= GameConstants.COOLDOWN_LIMIT
+						|| !location.isWithinDistanceSquared((MapLocation) args[0], type.actionRadiusSquared))
+					throw new IllegalStateException("cannot attack " + args[0] + " from " + location);
+				actionCooldown += type.actionCooldown; // robots stand still and take no damage
+				return null;
+			case "readSharedArray":
+				return shared[(Integer) args[0]];
+			case "canWriteSharedArray": {
+				int i = (Integer) args[0], v = (Integer) args[1];
+				return canWrite && i >= 0 && i < shared.length && v >= 0 && v <= GameConstants.MAX_SHARED_ARRAY_VALUE;
+			}
+			case "writeSharedArray": {
+				int i = (Integer) args[0], v = (Integer) args[1];
+				if (!canWrite || v < 0 || v > GameConstants.MAX_SHARED_ARRAY_VALUE)
+					throw new IllegalStateException("cannot write " + v + " to slot " + i);
+				shared[i] = v;
+				return null;
+			}
+			case "setIndicatorString":
+				indicator = (String) args[0];
+				return null;
+			case "setIndicatorDot":
+			case "setIndicatorLine":
+				return null;
+			case "toString":
+				return "SimController[" + type + " at " + location + ", round " + round + "]";
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			default:
+				throw new UnsupportedOperationException(name + " is not simulated");
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package realplayer2;
+
+import battlecode.common.*;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SymmetrySolverTest {
+
+	@Test
+	public void anEnemyHqRulesOutTheSymmetriesNoneOfOursMirrorsOnto() throws GameActionException {
+		SimController sim = new SimController(20, 20, RobotType.LAUNCHER, Team.A, new MapLocation(10, 10));
+		SimController.respawn();
+		MapMemory.update(sim.rc);
+		sim.round = 2;
+
+		WorldModel.setHq(0, WorldModel.pack(new MapLocation(2, 3)), false);
+		WorldModel.setHq(0, WorldModel.pack(new MapLocation(17, 16)), true); // (2, 3) rotated
+		SymmetrySolver.observeHqs(sim.rc);
+		assertEquals(Symmetry.ROTATION, SymmetrySolver.symmetry);
+	}
+
+	@Test
+	public void terrainThatDiffersFromItsMirrorRulesOutTheSymmetry() throws GameActionException {
+		// walls at (8, 10) and at its rotation (11, 9), open ground at the other mirrors (8, 9) and (11, 10)
+		SimController sim = new SimController(20, 20, RobotType.LAUNCHER, Team.A, new MapLocation(10, 10))
+				.wall(8, 10).wall(11, 9);
+		SimController.respawn();
+		MapMemory.update(sim.rc);
+		new SymmetrySolver.ObserveTask(0).step(sim.rc, Integer.MIN_VALUE);
+		assertEquals(Symmetry.ROTATION, SymmetrySolver.symmetry);
+	}
+}